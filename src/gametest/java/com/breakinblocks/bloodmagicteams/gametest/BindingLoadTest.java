@@ -0,0 +1,303 @@
+package com.breakinblocks.bloodmagicteams.gametest;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.data.PendingBindings;
+import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingMode;
+import com.breakinblocks.bloodmagicteams.network.BindingModePacket;
+import com.mojang.authlib.GameProfile;
+import dev.ftb.mods.ftbteams.api.FTBTeamsAPI;
+import dev.ftb.mods.ftbteams.api.Team;
+import dev.ftb.mods.ftbteams.api.property.TeamProperties;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.gametest.GameTestHolder;
+import net.minecraftforge.gametest.PrefixGameTestTemplate;
+import net.minecraftforge.registries.ForgeRegistries;
+import wayoftime.bloodmagic.common.item.IBindable;
+import wayoftime.bloodmagic.core.data.Binding;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Load test for team binding: hundreds of fake players spread over dozens of FTB teams right-click
+ * unbound BloodMagic items, answer the binding prompt the way the client would, and switch teams
+ * while doing so. Every resulting binding is checked against the player's team at the time of the
+ * click, and the time the simulated activity adds to each tick is reported in the log.
+ * <p>
+ * Runs headless with {@code ./gradlew runGameTestServer}. The scale can be changed with the
+ * {@code bloodmagicteams.loadtest.players}, {@code .teams} and {@code .ticks} system properties.
+ */
+@GameTestHolder(BloodMagicTeams.MOD_ID)
+@PrefixGameTestTemplate(false)
+public class BindingLoadTest {
+    private static final int TIMEOUT_TICKS = 2400;
+
+    private static final int PLAYERS = Integer.getInteger("bloodmagicteams.loadtest.players", 300);
+    private static final int TEAMS = Integer.getInteger("bloodmagicteams.loadtest.teams", 30);
+    private static final int TICKS = Math.min(Integer.getInteger("bloodmagicteams.loadtest.ticks", 600), TIMEOUT_TICKS - 20);
+
+    // A tenth of the players click every tick, and a twentieth switch teams every second
+    private static final int CLICKS_PER_TICK = Math.max(1, PLAYERS / 10);
+    private static final int CHURN_INTERVAL = 20;
+    private static final int CHURN_PER_INTERVAL = Math.max(1, PLAYERS / 20);
+
+    private static final ResourceLocation[] BINDABLE_ITEMS = {
+            new ResourceLocation("bloodmagic", "weakbloodorb"),
+            new ResourceLocation("bloodmagic", "divinationsigil")
+    };
+
+    private static final int MAX_REPORTED_MISBINDS = 10;
+
+    @GameTest(template = "empty", timeoutTicks = TIMEOUT_TICKS)
+    public static void concurrentBinding(GameTestHelper helper) {
+        LoadTest test = new LoadTest(helper);
+        test.setUp();
+        helper.onEachTick(test::tick);
+        helper.runAfterDelay(TICKS, test::finish);
+    }
+
+    private static final class LoadTest {
+        private final GameTestHelper helper;
+        private final ServerLevel level;
+        private final MinecraftServer server;
+        private final Random random = new Random(20240101L);
+
+        private final FakePlayer[] players = new FakePlayer[PLAYERS];
+        private final Set<UUID> owners = new HashSet<>();
+        private final UUID[] teamIds = new UUID[TEAMS];
+        private final Item[] items = new Item[BINDABLE_ITEMS.length];
+
+        // Preferences saved with "don't ask again", which skip the prompt on later clicks
+        private final Map<UUID, BindingMode> savedModes = new HashMap<>();
+
+        private final long[] tickNanos = new long[TICKS + 1];
+        private int ticks = 0;
+        private int nextPlayer = 0;
+        private boolean finished = false;
+
+        private int clicks = 0;
+        private int prompts = 0;
+        private int teamBinds = 0;
+        private int personalBinds = 0;
+        private int unbound = 0;
+        private int churned = 0;
+        private int commandFailures = 0;
+        private final List<String> misbinds = new ArrayList<>();
+        private int misbindCount = 0;
+
+        private LoadTest(GameTestHelper helper) {
+            this.helper = helper;
+            this.level = helper.getLevel();
+            this.server = level.getServer();
+        }
+
+        private void setUp() {
+            for (int i = 0; i < BINDABLE_ITEMS.length; i++) {
+                Item item = ForgeRegistries.ITEMS.getValue(BINDABLE_ITEMS[i]);
+                if (!(item instanceof IBindable)) {
+                    helper.fail("Missing bindable item " + BINDABLE_ITEMS[i]);
+                }
+                items[i] = item;
+            }
+
+            for (int i = 0; i < PLAYERS; i++) {
+                String name = "bmt_load_" + i;
+                UUID id = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+                players[i] = FakePlayerFactory.get(level, new GameProfile(id, name));
+                // FTB Teams creates each player's own team when they log in
+                MinecraftForge.EVENT_BUS.post(new PlayerEvent.PlayerLoggedInEvent(players[i]));
+            }
+
+            // The first TEAMS players own a team; a tenth of the players stay without one
+            for (int t = 0; t < TEAMS; t++) {
+                FakePlayer owner = players[t];
+                if (!run(owner, "ftbteams party create bmt_load_team_" + t)) {
+                    helper.fail("Could not create team " + t);
+                }
+                Team team = partyOf(owner);
+                if (team == null) {
+                    helper.fail("Team " + t + " was not created");
+                }
+                team.setProperty(TeamProperties.FREE_TO_JOIN, true);
+                teamIds[t] = team.getId();
+                owners.add(owner.getUUID());
+            }
+            for (int i = TEAMS; i < memberCount(); i++) {
+                join(players[i], i % TEAMS);
+            }
+
+            BloodMagicTeams.LOGGER.info("Load test started: {} players, {} teams, {} ticks",
+                    PLAYERS, TEAMS, TICKS);
+        }
+
+        private void tick() {
+            if (finished) {
+                return;
+            }
+            long start = System.nanoTime();
+            if (ticks > 0 && ticks % CHURN_INTERVAL == 0) {
+                churn();
+            }
+            for (int n = 0; n < CLICKS_PER_TICK; n++) {
+                click(players[nextPlayer]);
+                nextPlayer = (nextPlayer + 1) % players.length;
+            }
+            if (ticks < tickNanos.length) {
+                tickNanos[ticks] = System.nanoTime() - start;
+            }
+            ticks++;
+        }
+
+        /**
+         * One right-click on a fresh unbound item, going through the same path as a real player's use.
+         */
+        private void click(FakePlayer player) {
+            ItemStack stack = new ItemStack(items[random.nextInt(items.length)]);
+            player.setItemInHand(InteractionHand.MAIN_HAND, stack);
+            Team party = partyOf(player);
+            clicks++;
+
+            player.gameMode.useItem(player, level, stack, InteractionHand.MAIN_HAND);
+
+            BindingMode mode = savedModes.get(player.getUUID());
+            if (getBinding(stack) == null) {
+                // The click opened a prompt; answer it like the client screen would
+                mode = random.nextBoolean() ? BindingMode.TEAM : BindingMode.PERSONAL;
+                boolean dontAsk = random.nextInt(10) == 0;
+                new BindingModePacket(mode, dontAsk, PendingBindings.LEGACY_REQUEST_ID).apply(player);
+                prompts++;
+                if (dontAsk) {
+                    savedModes.put(player.getUUID(), mode);
+                }
+            }
+
+            UUID expected = mode == BindingMode.TEAM && party != null ? party.getId() : player.getUUID();
+            Binding binding = getBinding(stack);
+            if (binding == null) {
+                unbound++;
+            } else if (!binding.getOwnerId().equals(expected)) {
+                misbindCount++;
+                if (misbinds.size() < MAX_REPORTED_MISBINDS) {
+                    misbinds.add(player.getGameProfile().getName() + " bound to " + binding.getOwnerId()
+                            + ", expected " + expected);
+                }
+            } else if (expected.equals(player.getUUID())) {
+                personalBinds++;
+            } else {
+                teamBinds++;
+            }
+        }
+
+        /**
+         * Moves random members to another team. Owners stay put so every team keeps existing.
+         */
+        private void churn() {
+            for (int n = 0; n < CHURN_PER_INTERVAL; n++) {
+                FakePlayer player = players[random.nextInt(memberCount())];
+                if (owners.contains(player.getUUID())) {
+                    continue;
+                }
+                if (partyOf(player) != null && !run(player, "ftbteams party leave")) {
+                    continue;
+                }
+                join(player, random.nextInt(TEAMS));
+                churned++;
+            }
+        }
+
+        private void finish() {
+            finished = true;
+
+            // Members leave first; an owner leaving an empty party deletes it
+            for (FakePlayer player : players) {
+                if (!owners.contains(player.getUUID()) && partyOf(player) != null) {
+                    run(player, "ftbteams party leave");
+                }
+            }
+            for (FakePlayer player : players) {
+                if (owners.contains(player.getUUID())) {
+                    run(player, "ftbteams party leave");
+                }
+                MinecraftForge.EVENT_BUS.post(new PlayerEvent.PlayerLoggedOutEvent(player));
+            }
+
+            int measured = Math.min(ticks, tickNanos.length);
+            long[] sorted = Arrays.copyOf(tickNanos, measured);
+            Arrays.sort(sorted);
+            double meanMs = measured > 0 ? Arrays.stream(sorted).average().orElse(0) / 1_000_000.0 : 0;
+            double p99Ms = measured > 0 ? sorted[Math.min(measured - 1, (int) (measured * 0.99))] / 1_000_000.0 : 0;
+            double maxMs = measured > 0 ? sorted[measured - 1] / 1_000_000.0 : 0;
+
+            BloodMagicTeams.LOGGER.info("Load test finished: {} clicks, {} prompts, {} team binds, {} personal binds, "
+                            + "{} unbound, {} mis-binds, {} team switches, {} failed commands",
+                    clicks, prompts, teamBinds, personalBinds, unbound, misbindCount, churned, commandFailures);
+            BloodMagicTeams.LOGGER.info("Load test tick cost: mean {} ms, p99 {} ms, max {} ms; server average tick {} ms",
+                    String.format("%.3f", meanMs), String.format("%.3f", p99Ms), String.format("%.3f", maxMs),
+                    String.format("%.3f", server.getAverageTickTime()));
+
+            if (misbindCount > 0) {
+                helper.fail(misbindCount + " mis-binds, e.g. " + String.join("; ", misbinds));
+            }
+            if (unbound > 0) {
+                helper.fail(unbound + " clicks left the item unbound");
+            }
+            helper.succeed();
+        }
+
+        private int memberCount() {
+            return PLAYERS - PLAYERS / 10;
+        }
+
+        private void join(FakePlayer player, int team) {
+            run(player, "ftbteams party join " + teamIds[team]);
+        }
+
+        /**
+         * Runs an FTB Teams command as a player, so team changes fire the same events as in play.
+         */
+        private boolean run(FakePlayer player, String command) {
+            int result = server.getCommands().performPrefixedCommand(
+                    player.createCommandSourceStack().withSuppressedOutput(), command);
+            if (result <= 0) {
+                commandFailures++;
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * The player's party team according to FTB Teams, bypassing BloodMagic Teams' own caches.
+         */
+        @Nullable
+        private static Team partyOf(FakePlayer player) {
+            return FTBTeamsAPI.api().getManager().getTeamForPlayerID(player.getUUID())
+                    .filter(team -> !team.isPlayerTeam())
+                    .orElse(null);
+        }
+
+        @Nullable
+        private static Binding getBinding(ItemStack stack) {
+            return ((IBindable) stack.getItem()).getBinding(stack);
+        }
+    }
+}
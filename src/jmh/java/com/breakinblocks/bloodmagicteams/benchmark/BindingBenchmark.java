@@ -0,0 +1,96 @@
+package com.breakinblocks.bloodmagicteams.benchmark;
+
+import com.breakinblocks.bloodmagicteams.team.BMTeamsProperties;
+import com.breakinblocks.bloodmagicteams.team.BindingPolicy;
+import com.breakinblocks.bloodmagicteams.team.BindingRestriction;
+import com.breakinblocks.bloodmagicteams.team.ItemCategory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-click binding checks against 10, 1,000 and 10,000 stub teams.
+ * Each invocation moves on to the next member, so larger team counts show the cost of
+ * cache lookups that no longer fit in the CPU cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindingBenchmark {
+
+    // Property values as FTB Teams stores them, including an unset value
+    private static final String[] RESTRICTION_NAMES = {"member", "officer", null, "unknown"};
+
+    @Param({"10", "1000", "10000"})
+    public int teams;
+
+    private StubTeams.Member[] members;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        members = StubTeams.create(teams, 42L);
+        BMTeamsProperties.clearCache();
+        // Measure the steady state; cold lookups are covered by compilePolicy
+        for (StubTeams.Member member : members) {
+            BMTeamsProperties.getBindingPolicy(member.team());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BMTeamsProperties.clearCache();
+    }
+
+    private StubTeams.Member nextMember() {
+        StubTeams.Member member = members[next];
+        next = next + 1 == members.length ? 0 : next + 1;
+        return member;
+    }
+
+    @Benchmark
+    public BindingRestriction restrictionFromString() {
+        return BindingRestriction.fromString(RESTRICTION_NAMES[nextMember().rank().ordinal() & 3]);
+    }
+
+    @Benchmark
+    public boolean canPlayerBind() {
+        StubTeams.Member member = nextMember();
+        return BMTeamsProperties.canPlayerBind(member.team(), member.rank());
+    }
+
+    @Benchmark
+    public boolean canBindCategory() {
+        StubTeams.Member member = nextMember();
+        int categories = BMTeamsProperties.getBindingPolicy(member.team())
+                .bindableCategories(member.playerId(), member.rank());
+        return (categories & ItemCategory.SIGIL.bit()) != 0;
+    }
+
+    /**
+     * The cost of a policy cache miss, paid once per team after its properties or members change.
+     */
+    @Benchmark
+    public BindingPolicy compilePolicy() {
+        StubTeams.Member member = nextMember();
+        return BindingPolicy.compile(BindingRestriction.OFFICER,
+                List.of("orb:officer", "deny:sigil:" + member.playerId()), UUID::fromString);
+    }
+}
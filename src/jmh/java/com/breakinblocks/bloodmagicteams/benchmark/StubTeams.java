@@ -0,0 +1,103 @@
+package com.breakinblocks.bloodmagicteams.benchmark;
+
+import com.breakinblocks.bloodmagicteams.team.BMTeamsProperties;
+import com.breakinblocks.bloodmagicteams.team.BindingRestriction;
+import dev.ftb.mods.ftbteams.api.Team;
+import dev.ftb.mods.ftbteams.api.TeamRank;
+import dev.ftb.mods.ftbteams.api.property.TeamPropertyCollection;
+import net.minecraft.network.chat.Component;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Builds FTB Teams {@link Team}s for benchmarks without a running team manager.
+ * <p>
+ * Teams are dynamic proxies that answer only the calls the binding path makes, so the stubs keep
+ * compiling as the FTB Teams API grows. Anything else throws, which shows up straight away if a
+ * benchmarked path starts touching more of the team than expected.
+ */
+public final class StubTeams {
+    public static final int MEMBERS_PER_TEAM = 4;
+
+    /**
+     * One stub team member.
+     */
+    public record Member(Team team, UUID playerId, TeamRank rank) {
+    }
+
+    private StubTeams() {
+    }
+
+    /**
+     * Creates teams with a spread of configurations: every fourth team is officer-only and
+     * every eighth has binding rules. Each team has an owner, an officer and two members.
+     * @param count The number of teams
+     * @param seed Seed for team and player UUIDs, so runs are repeatable
+     * @return Every member of every team, team by team
+     */
+    public static Member[] create(int count, long seed) {
+        Random random = new Random(seed);
+        List<Member> members = new ArrayList<>(count * MEMBERS_PER_TEAM);
+        for (int i = 0; i < count; i++) {
+            UUID teamId = new UUID(random.nextLong(), random.nextLong());
+            Map<UUID, TeamRank> ranks = new HashMap<>();
+            ranks.put(new UUID(random.nextLong(), random.nextLong()), TeamRank.OWNER);
+            ranks.put(new UUID(random.nextLong(), random.nextLong()), TeamRank.OFFICER);
+            ranks.put(new UUID(random.nextLong(), random.nextLong()), TeamRank.MEMBER);
+            UUID denied = new UUID(random.nextLong(), random.nextLong());
+            ranks.put(denied, TeamRank.MEMBER);
+
+            BindingRestriction restriction = i % 4 == 0 ? BindingRestriction.OFFICER : BindingRestriction.MEMBER;
+            List<String> rules = i % 8 == 0 ? List.of("orb:officer", "deny:sigil:" + denied) : List.of();
+            Team team = team(teamId, "Team " + i, restriction, rules, ranks);
+            ranks.forEach((playerId, rank) -> members.add(new Member(team, playerId, rank)));
+        }
+        return members.toArray(new Member[0]);
+    }
+
+    private static Team team(UUID id, String name, BindingRestriction restriction, List<String> rules,
+                             Map<UUID, TeamRank> ranks) {
+        Component displayName = Component.literal(name);
+        TeamPropertyCollection properties = properties(restriction, rules);
+        return (Team) Proxy.newProxyInstance(Team.class.getClassLoader(), new Class<?>[]{Team.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getId", "getTeamId" -> id;
+                    case "getName" -> displayName;
+                    case "getProperties" -> properties;
+                    case "getMembers" -> ranks.keySet();
+                    case "getRankForPlayer" -> ranks.getOrDefault((UUID) args[0], TeamRank.NONE);
+                    case "isPlayerTeam" -> false;
+                    case "isPartyTeam" -> true;
+                    case "hashCode" -> id.hashCode();
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> name;
+                    default -> throw new UnsupportedOperationException("Stub team does not support " + method.getName());
+                });
+    }
+
+    private static TeamPropertyCollection properties(BindingRestriction restriction, List<String> rules) {
+        String restrictionName = restriction.getSerializedName();
+        return (TeamPropertyCollection) Proxy.newProxyInstance(TeamPropertyCollection.class.getClassLoader(),
+                new Class<?>[]{TeamPropertyCollection.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("get")) {
+                        throw new UnsupportedOperationException("Stub properties do not support " + method.getName());
+                    }
+                    Object property = args[0];
+                    if (property == BMTeamsProperties.BINDING_RESTRICTION) {
+                        return restrictionName;
+                    } else if (property == BMTeamsProperties.BINDING_RULES) {
+                        return rules;
+                    } else if (property == BMTeamsProperties.MEMBER_DRAIN_QUOTA) {
+                        return 0;
+                    }
+                    throw new UnsupportedOperationException("Stub properties do not hold " + property);
+                });
+    }
+}
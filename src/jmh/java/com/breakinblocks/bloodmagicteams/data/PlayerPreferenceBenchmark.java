@@ -0,0 +1,76 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingMode;
+import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingPreference;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cached preference lookup {@link PlayerBindingData#getPreference} makes on every
+ * right click, including players remembered as having no saved preference.
+ * <p>
+ * Lives in the data package to fill the cache directly, as a load from player NBT would. Player
+ * counts stay below the cache's safety valve so every lookup is a hit.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerPreferenceBenchmark {
+
+    @Param({"10", "1000"})
+    public int players;
+
+    private UUID[] playerIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42L);
+        UUID teamId = new UUID(random.nextLong(), random.nextLong());
+        playerIds = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            playerIds[i] = new UUID(random.nextLong(), random.nextLong());
+            // Mix of team, personal and players without saved data
+            BindingPreference pref = switch (i % 4) {
+                case 0 -> BindingPreference.of(BindingMode.TEAM, true, teamId);
+                case 1 -> BindingPreference.of(BindingMode.TEAM, false, null);
+                case 2 -> BindingPreference.of(BindingMode.PERSONAL, true, null);
+                default -> PlayerBindingData.NO_PREFERENCE;
+            };
+            PlayerBindingData.cache(playerIds[i], pref);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (UUID playerId : playerIds) {
+            PlayerBindingData.clearCache(playerId);
+        }
+    }
+
+    @Benchmark
+    public boolean getPreference() {
+        UUID playerId = playerIds[next];
+        next = next + 1 == playerIds.length ? 0 : next + 1;
+        BindingPreference pref = PlayerBindingData.getPreference(playerId, null);
+        return pref != null && pref.mode() == BindingMode.TEAM;
+    }
+}
@@ -0,0 +1,80 @@
+package com.breakinblocks.bloodmagicteams.integration;
+
+import com.breakinblocks.bloodmagicteams.benchmark.StubTeams;
+import com.breakinblocks.bloodmagicteams.team.BMTeamsProperties;
+import com.breakinblocks.bloodmagicteams.team.ItemCategory;
+import dev.ftb.mods.ftbteams.api.Team;
+import dev.ftb.mods.ftbteams.api.TeamRank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cached team lookup the right-click handler makes before every binding:
+ * player to {@link TeamResolutionCache.Entry}, then the player's {@link BindingContext}.
+ * <p>
+ * Lives in the integration package for access to the cache entry. Entries are built directly,
+ * as {@link TeamResolutionCache#get} would on a miss, because there is no FTB team manager here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TeamResolutionBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int teams;
+
+    private final Map<UUID, TeamResolutionCache.Entry> entries = new ConcurrentHashMap<>();
+    private UUID[] players;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StubTeams.Member[] members = StubTeams.create(teams, 42L);
+        players = new UUID[members.length];
+        Map<Team, TeamResolutionCache.Entry> byTeam = new HashMap<>();
+        for (int i = 0; i < members.length; i++) {
+            Team team = members[i].team();
+            players[i] = members[i].playerId();
+            entries.put(players[i], byTeam.computeIfAbsent(team, t -> new TeamResolutionCache.Entry(t, t.getId(),
+                    t.getName().getString(), BMTeamsProperties.getBindingRestriction(t),
+                    BMTeamsProperties.getBindingPolicy(t), new BindingContext[TeamRank.values().length])));
+        }
+        // Fill the per-rank contexts so the benchmark measures cache hits
+        for (UUID player : players) {
+            entries.get(player).contextFor(player);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BMTeamsProperties.clearCache();
+    }
+
+    @Benchmark
+    public boolean bindingContext() {
+        UUID player = players[next];
+        next = next + 1 == players.length ? 0 : next + 1;
+        BindingContext context = entries.get(player).contextFor(player);
+        return context.isOnTeam() && context.canBind(ItemCategory.ORB);
+    }
+}
@@ -2,6 +2,8 @@ package com.breakinblocks.bloodmagicteams;
 
 import com.breakinblocks.bloodmagicteams.commands.BMTeamsCommands;
 import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import com.breakinblocks.bloodmagicteams.events.ClientEventHandler;
+import com.breakinblocks.bloodmagicteams.events.SoulNetworkEventHandler;
 import com.breakinblocks.bloodmagicteams.events.TeamEventHandler;
 import com.breakinblocks.bloodmagicteams.events.TooltipEventHandler;
 import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
@@ -14,6 +16,7 @@ import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
+import net.minecraftforge.fml.loading.FMLEnvironment;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -34,6 +37,10 @@ public class BloodMagicTeams {
         // Register event handlers
         MinecraftForge.EVENT_BUS.register(new TeamEventHandler());
         MinecraftForge.EVENT_BUS.register(new TooltipEventHandler());
+        MinecraftForge.EVENT_BUS.register(new SoulNetworkEventHandler());
+        if (FMLEnvironment.dist.isClient()) {
+            MinecraftForge.EVENT_BUS.register(new ClientEventHandler());
+        }
         
         // Register command event
         MinecraftForge.EVENT_BUS.addListener(this::registerCommands);
@@ -49,6 +56,7 @@ public class BloodMagicTeams {
             // Check for FTB Teams and register properties
             if (TeamsIntegration.isTeamsLoaded()) {
                 TeamsIntegration.registerProperties();
+                TeamsIntegration.registerEvents();
                 LOGGER.info("FTB Teams detected - team binding features enabled");
             } else {
                 LOGGER.warn("FTB Teams not found - team binding features disabled");
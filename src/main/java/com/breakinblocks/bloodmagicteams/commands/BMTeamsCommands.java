@@ -1,33 +1,72 @@
 package com.breakinblocks.bloodmagicteams.commands;
 
+import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import com.breakinblocks.bloodmagicteams.data.BoundItemIndex;
+import com.breakinblocks.bloodmagicteams.data.BoundItemScanner;
+import com.breakinblocks.bloodmagicteams.data.HandlerTimings;
+import com.breakinblocks.bloodmagicteams.data.MemberDrainQuotas;
+import com.breakinblocks.bloodmagicteams.data.NetworkTransactionLog;
+import com.breakinblocks.bloodmagicteams.data.NetworkTransactionLog.Source;
 import com.breakinblocks.bloodmagicteams.data.PlayerBindingData;
 import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingMode;
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkMetrics;
+import com.breakinblocks.bloodmagicteams.integration.BindingContext;
 import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
+import com.breakinblocks.bloodmagicteams.network.PacketRateLimiter;
+import net.minecraft.Util;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
-import net.minecraft.commands.SharedSuggestionProvider;
+import net.minecraft.commands.arguments.EntityArgument;
+import net.minecraft.commands.arguments.coordinates.BlockPosArgument;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.Containers;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.IItemHandlerModifiable;
+import net.minecraftforge.items.ItemHandlerHelper;
+import net.minecraftforge.items.wrapper.InvWrapper;
+import net.minecraftforge.items.wrapper.PlayerInvWrapper;
+import wayoftime.bloodmagic.common.item.IBindable;
+import wayoftime.bloodmagic.core.data.Binding;
 import wayoftime.bloodmagic.core.data.SoulNetwork;
 import wayoftime.bloodmagic.core.data.SoulTicket;
+import wayoftime.bloodmagic.util.helper.BindableHelper;
 import wayoftime.bloodmagic.util.helper.NetworkHelper;
 
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
- * Commands for managing binding mode preferences.
+ * Commands for managing binding mode preferences, team soul networks and bulk team binding.
  */
 public class BMTeamsCommands {
 
@@ -46,7 +85,17 @@ public class BMTeamsCommands {
                         .executes(BMTeamsCommands::showStatus))
                 .then(Commands.literal("network")
                         .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
-                        .then(Commands.argument("team", StringArgumentType.word())
+                        .then(Commands.literal("*")
+                                .then(Commands.literal("set")
+                                        .then(Commands.argument("amount", IntegerArgumentType.integer(0, Integer.MAX_VALUE))
+                                                .executes(context -> startBulk(context, BULK_ALL, BulkOp.SET))))
+                                .then(Commands.literal("add")
+                                        .then(Commands.argument("amount", IntegerArgumentType.integer(0, Integer.MAX_VALUE))
+                                                .executes(context -> startBulk(context, BULK_ALL, BulkOp.ADD))))
+                                .then(Commands.literal("reset")
+                                        .executes(context -> startBulk(context, BULK_ALL, BulkOp.RESET))))
+                        // string() rather than word() so a quoted "team1,team2" list can be given
+                        .then(Commands.argument("team", StringArgumentType.string())
                                 .suggests(BMTeamsCommands::suggestAllTeams)
                                 .then(Commands.literal("query")
                                         .executes(BMTeamsCommands::networkQuery))
@@ -57,7 +106,40 @@ public class BMTeamsCommands {
                                         .then(Commands.argument("amount", IntegerArgumentType.integer(0, Integer.MAX_VALUE))
                                                 .executes(BMTeamsCommands::networkAdd)))
                                 .then(Commands.literal("reset")
-                                        .executes(BMTeamsCommands::networkReset))))
+                                        .executes(BMTeamsCommands::networkReset))
+                                .then(Commands.literal("history")
+                                        .executes(BMTeamsCommands::networkHistory))
+                                .then(Commands.literal("stats")
+                                        .executes(BMTeamsCommands::networkStats))
+                                .then(Commands.literal("quota")
+                                        .executes(BMTeamsCommands::networkQuota))))
+                .then(Commands.literal("bind")
+                        .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                        .then(Commands.argument("team", StringArgumentType.word())
+                                .suggests(BMTeamsCommands::suggestAllTeams)
+                                .then(Commands.literal("player")
+                                        .then(Commands.argument("targets", EntityArgument.players())
+                                                .executes(BMTeamsCommands::bindPlayers)))
+                                .then(Commands.literal("block")
+                                        .then(Commands.argument("pos", BlockPosArgument.blockPos())
+                                                .executes(BMTeamsCommands::bindBlock)))))
+                .then(Commands.literal("scan")
+                        .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                        .then(Commands.literal("start")
+                                .executes(BMTeamsCommands::scanStart))
+                        .then(Commands.literal("find")
+                                .then(Commands.argument("owner", StringArgumentType.word())
+                                        .suggests(BMTeamsCommands::suggestAllTeams)
+                                        .executes(BMTeamsCommands::scanFind))))
+                .then(Commands.literal("packets")
+                        .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                        .executes(BMTeamsCommands::showPacketStats))
+                .then(Commands.literal("debug")
+                        .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                        .then(Commands.literal("timings")
+                                .executes(BMTeamsCommands::showTimings)
+                                .then(Commands.literal("reset")
+                                        .executes(BMTeamsCommands::resetTimings))))
         );
         
         BloodMagicTeams.LOGGER.debug("Registered /bloodmagicteams command");
@@ -83,15 +165,16 @@ public class BMTeamsCommands {
             return 0;
         }
 
-        if (!TeamsIntegration.isOnTeam(player)) {
+        BindingContext binding = TeamsIntegration.getBindingContext(player);
+        if (!binding.isOnTeam()) {
             context.getSource().sendFailure(Component.translatable("commands.bloodmagicteams.not_on_team"));
             return 0;
         }
 
         PlayerBindingData.setBindingMode(player, BindingMode.TEAM, true);
-        Optional<String> teamName = TeamsIntegration.getTeamName(player);
+        String teamName = binding.teamName() != null ? binding.teamName() : "Unknown";
         context.getSource().sendSuccess(() -> 
-                Component.translatable("commands.bloodmagicteams.set_team", teamName.orElse("Unknown")), false);
+                Component.translatable("commands.bloodmagicteams.set_team", teamName), false);
         return 1;
     }
 
@@ -102,25 +185,39 @@ public class BMTeamsCommands {
             return 0;
         }
 
-        String teamIdStr = StringArgumentType.getString(context, "teamId");
-        UUID teamId;
-        try {
-            teamId = UUID.fromString(teamIdStr);
-        } catch (IllegalArgumentException e) {
-            context.getSource().sendFailure(Component.translatable("commands.bloodmagicteams.invalid_team_id"));
-            return 0;
+        String teamArg = StringArgumentType.getString(context, "teamId");
+        Map<UUID, String> bindableTeams = TeamsIntegration.getBindableTeams(player);
+
+        // Accept either a team UUID or a team name
+        UUID teamId = null;
+        String teamName = null;
+        for (Map.Entry<UUID, String> entry : bindableTeams.entrySet()) {
+            if (entry.getKey().toString().equalsIgnoreCase(teamArg) || entry.getValue().equalsIgnoreCase(teamArg)) {
+                teamId = entry.getKey();
+                teamName = entry.getValue();
+                break;
+            }
         }
 
-        // Verify team exists
-        String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
-        if (teamName == null) {
-            context.getSource().sendFailure(Component.translatable("commands.bloodmagicteams.team_not_found"));
+        if (teamId == null) {
+            // Distinguish a team the player may not bind to from one that does not exist
+            boolean exists = TeamsIntegration.findTeamIdByName(teamArg) != null;
+            if (!exists) {
+                try {
+                    exists = TeamsIntegration.getTeamNameByUuid(UUID.fromString(teamArg)) != null;
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+            context.getSource().sendFailure(Component.translatable(exists
+                    ? "commands.bloodmagicteams.team_not_bindable"
+                    : "commands.bloodmagicteams.team_not_found"));
             return 0;
         }
 
+        String finalTeamName = teamName;
         PlayerBindingData.setBindingMode(player, BindingMode.TEAM, true, teamId);
         context.getSource().sendSuccess(() -> 
-                Component.translatable("commands.bloodmagicteams.set_specific_team", teamName), false);
+                Component.translatable("commands.bloodmagicteams.set_specific_team", finalTeamName), false);
         return 1;
     }
 
@@ -146,15 +243,16 @@ public class BMTeamsCommands {
 
         PlayerBindingData.BindingPreference pref = PlayerBindingData.getPreference(player);
         
-        if (pref == null || !pref.dontAsk) {
+        if (pref == null || !pref.dontAsk()) {
             context.getSource().sendSuccess(() -> 
                     Component.translatable("commands.bloodmagicteams.status_ask"), false);
-        } else if (pref.mode == BindingMode.PERSONAL) {
+        } else if (pref.mode() == BindingMode.PERSONAL) {
             context.getSource().sendSuccess(() -> 
                     Component.translatable("commands.bloodmagicteams.status_self"), false);
-        } else if (pref.targetTeamId != null) {
-            String teamName = TeamsIntegration.getTeamNameByUuid(pref.targetTeamId);
-            String displayName = teamName != null ? teamName : pref.targetTeamId.toString();
+        } else if (pref.hasTargetTeam()) {
+            UUID targetTeamId = pref.targetTeamId();
+            String teamName = TeamsIntegration.getTeamNameByUuid(targetTeamId);
+            String displayName = teamName != null ? teamName : targetTeamId.toString();
             context.getSource().sendSuccess(() -> 
                     Component.translatable("commands.bloodmagicteams.status_specific_team", displayName), false);
         } else {
@@ -166,31 +264,37 @@ public class BMTeamsCommands {
     }
 
     private static CompletableFuture<Suggestions> suggestTeams(CommandContext<CommandSourceStack> context, SuggestionsBuilder builder) {
-        List<String> teamIds = getAvailableTeamIds(context.getSource());
-        return SharedSuggestionProvider.suggest(teamIds, builder);
-    }
-
-    private static List<String> getAvailableTeamIds(CommandSourceStack source) {
-        List<String> teams = new ArrayList<>();
-
-        // Add the player's own team if they're on one
-        ServerPlayer player = source.getPlayer();
-        if (player != null && TeamsIntegration.isOnTeam(player)) {
-            TeamsIntegration.getTeamId(player).ifPresent(id -> teams.add(id.toString()));
+        ServerPlayer player = context.getSource().getPlayer();
+        if (player == null) {
+            return builder.buildFuture();
         }
 
-        return teams;
+        // Snapshot the player's bindable teams here, then filter off the server thread
+        Map<UUID, String> bindableTeams = TeamsIntegration.getBindableTeams(player);
+        if (bindableTeams.isEmpty()) {
+            return builder.buildFuture();
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            String remaining = builder.getRemainingLowerCase();
+            for (Map.Entry<UUID, String> entry : bindableTeams.entrySet()) {
+                String name = entry.getValue();
+                if (!name.isEmpty() && name.indexOf(' ') < 0 && name.toLowerCase(Locale.ROOT).startsWith(remaining)) {
+                    builder.suggest(name);
+                }
+                String id = entry.getKey().toString();
+                if (id.startsWith(remaining)) {
+                    builder.suggest(id);
+                }
+            }
+            return builder.build();
+        }, Util.backgroundExecutor());
     }
 
     // --- Network subcommand methods (OP only) ---
 
     private static CompletableFuture<Suggestions> suggestAllTeams(CommandContext<CommandSourceStack> context, SuggestionsBuilder builder) {
-        Map<UUID, String> allTeams = TeamsIntegration.getAllTeams();
-        List<String> suggestions = new ArrayList<>();
-        for (Map.Entry<UUID, String> entry : allTeams.entrySet()) {
-            suggestions.add(entry.getKey().toString());
-        }
-        return SharedSuggestionProvider.suggest(suggestions, builder);
+        TeamsIntegration.forEachTeamSuggestion(builder.getRemaining(), builder::suggest);
+        return builder.buildFuture();
     }
 
     private static UUID resolveTeamId(CommandContext<CommandSourceStack> context) {
@@ -205,11 +309,9 @@ public class BMTeamsCommands {
         } catch (IllegalArgumentException ignored) {
         }
 
-        Map<UUID, String> allTeams = TeamsIntegration.getAllTeams();
-        for (Map.Entry<UUID, String> entry : allTeams.entrySet()) {
-            if (entry.getValue().equalsIgnoreCase(teamArg)) {
-                return entry.getKey();
-            }
+        UUID teamId = TeamsIntegration.findTeamIdByName(teamArg);
+        if (teamId != null) {
+            return teamId;
         }
 
         context.getSource().sendFailure(Component.translatable("commands.bloodmagicteams.team_not_found"));
@@ -229,41 +331,527 @@ public class BMTeamsCommands {
     }
 
     private static int networkSet(CommandContext<CommandSourceStack> context) {
+        if (isTeamList(context)) {
+            return startBulk(context, StringArgumentType.getString(context, "team"), BulkOp.SET);
+        }
         UUID teamId = resolveTeamId(context);
         if (teamId == null) return 0;
 
         String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
         int amount = IntegerArgumentType.getInteger(context, "amount");
         SoulNetwork network = NetworkHelper.getSoulNetwork(teamId);
+        int previous = network.getCurrentEssence();
         network.clear();
-        int added = network.add(new SoulTicket(amount), Integer.MAX_VALUE);
+        int added = addUnlogged(network, amount);
+        NetworkTransactionLog.record(teamId, sourcePlayerId(context), Source.COMMAND_SET, added - previous);
         context.getSource().sendSuccess(() ->
                 Component.translatable("commands.bloodmagicteams.network.set", teamName, added), true);
         return 1;
     }
 
     private static int networkAdd(CommandContext<CommandSourceStack> context) {
+        if (isTeamList(context)) {
+            return startBulk(context, StringArgumentType.getString(context, "team"), BulkOp.ADD);
+        }
         UUID teamId = resolveTeamId(context);
         if (teamId == null) return 0;
 
         String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
         int amount = IntegerArgumentType.getInteger(context, "amount");
         SoulNetwork network = NetworkHelper.getSoulNetwork(teamId);
-        int added = network.add(new SoulTicket(amount), Integer.MAX_VALUE);
+        int added = addUnlogged(network, amount);
+        NetworkTransactionLog.record(teamId, sourcePlayerId(context), Source.COMMAND_ADD, added);
         context.getSource().sendSuccess(() ->
                 Component.translatable("commands.bloodmagicteams.network.add", added, teamName), true);
         return 1;
     }
 
     private static int networkReset(CommandContext<CommandSourceStack> context) {
+        if (isTeamList(context)) {
+            return startBulk(context, StringArgumentType.getString(context, "team"), BulkOp.RESET);
+        }
         UUID teamId = resolveTeamId(context);
         if (teamId == null) return 0;
 
         String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
         SoulNetwork network = NetworkHelper.getSoulNetwork(teamId);
+        int previous = network.getCurrentEssence();
         network.clear();
+        NetworkTransactionLog.record(teamId, sourcePlayerId(context), Source.COMMAND_RESET, -previous);
         context.getSource().sendSuccess(() ->
                 Component.translatable("commands.bloodmagicteams.network.reset", teamName), true);
         return 1;
     }
+
+    private static final int HISTORY_LINES = 20;
+    private static final DateTimeFormatter HISTORY_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private static int networkHistory(CommandContext<CommandSourceStack> context) {
+        UUID teamId = resolveTeamId(context);
+        if (teamId == null) return 0;
+
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+        String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
+        NetworkTransactionLog.readHistory(server, teamId, HISTORY_LINES, entries -> server.execute(() -> {
+            if (entries.isEmpty()) {
+                source.sendSuccess(() ->
+                        Component.translatable("commands.bloodmagicteams.network.history.empty", teamName), false);
+                return;
+            }
+            source.sendSuccess(() ->
+                    Component.translatable("commands.bloodmagicteams.network.history", teamName, entries.size()), false);
+            for (NetworkTransactionLog.Entry entry : entries) {
+                String time = HISTORY_TIME_FORMAT.format(Instant.ofEpochMilli(entry.timestamp()));
+                String player = entry.player() == null ? "-" : server.getProfileCache().get(entry.player())
+                        .map(GameProfile::getName)
+                        .orElse(entry.player().toString());
+                String delta = entry.delta() >= 0 ? "+" + entry.delta() : Integer.toString(entry.delta());
+                source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.history.entry",
+                        time, player, entry.source().name().toLowerCase(Locale.ROOT), delta), false);
+            }
+        }));
+        return 1;
+    }
+
+    private static int networkStats(CommandContext<CommandSourceStack> context) {
+        UUID teamId = resolveTeamId(context);
+        if (teamId == null) return 0;
+
+        String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
+        TeamNetworkMetrics.TeamMetrics metrics = TeamNetworkMetrics.getOrSample(teamId);
+        context.getSource().sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.stats",
+                teamName, metrics.getEssence(), metrics.getPeakEssence()), false);
+        context.getSource().sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.stats.rates",
+                String.format(Locale.ROOT, "%.1f", metrics.getAddRate()),
+                String.format(Locale.ROOT, "%.1f", metrics.getDrainRate()),
+                metrics.getAdded(), metrics.getDrained()), false);
+        context.getSource().sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.stats.bindings",
+                metrics.getBindings(),
+                String.format(Locale.ROOT, "%.1f", TeamNetworkMetrics.getCacheHitRatio() * 100.0)), false);
+        return 1;
+    }
+
+    private static int networkQuota(CommandContext<CommandSourceStack> context) {
+        UUID teamId = resolveTeamId(context);
+        if (teamId == null) return 0;
+
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+        String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
+        int quota = TeamsIntegration.getMemberDrainQuota(teamId);
+        if (quota <= 0) {
+            source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.quota.none", teamName), false);
+            return 1;
+        }
+
+        Map<UUID, Long> usages = MemberDrainQuotas.getUsages(teamId);
+        source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.quota",
+                teamName, quota, usages.size()), false);
+        usages.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Long>comparingByValue().reversed())
+                .forEach(entry -> {
+                    String player = server.getProfileCache().get(entry.getKey())
+                            .map(GameProfile::getName)
+                            .orElse(entry.getKey().toString());
+                    source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.quota.entry",
+                            player, entry.getValue(), quota), false);
+                });
+        return 1;
+    }
+
+    private static final int PACKET_STATS_LINES = 5;
+
+    private static int showPacketStats(CommandContext<CommandSourceStack> context) {
+        long accepted = PacketRateLimiter.getAccepted();
+        long dropped = PacketRateLimiter.getDropped();
+        context.getSource().sendSuccess(() -> Component.translatable("commands.bloodmagicteams.packets",
+                accepted, dropped), false);
+        for (PacketRateLimiter.DropCount count : PacketRateLimiter.getTopDropped(PACKET_STATS_LINES)) {
+            context.getSource().sendSuccess(() -> Component.translatable("commands.bloodmagicteams.packets.player",
+                    count.playerName(), count.dropped()), false);
+        }
+        return (int) Math.min(dropped, Integer.MAX_VALUE);
+    }
+
+    private static int showTimings(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        if (!BMTeamsConfig.ENABLE_HANDLER_TIMINGS.get()) {
+            source.sendFailure(Component.translatable("commands.bloodmagicteams.debug.timings.disabled"));
+            return 0;
+        }
+
+        source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.debug.timings"), false);
+        int shown = 0;
+        for (HandlerTimings.Timer timer : HandlerTimings.Timer.values()) {
+            HandlerTimings.Snapshot snapshot = timer.snapshot();
+            if (snapshot.count() == 0) {
+                continue;
+            }
+            source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.debug.timings.entry",
+                    timer.getDisplayName(), snapshot.count(),
+                    formatMicros(snapshot.percentile(50)), formatMicros(snapshot.percentile(99)),
+                    formatMicros(snapshot.maxNanos())), false);
+            shown++;
+        }
+        if (shown == 0) {
+            source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.debug.timings.empty"), false);
+        }
+        return shown;
+    }
+
+    private static int resetTimings(CommandContext<CommandSourceStack> context) {
+        HandlerTimings.reset();
+        context.getSource().sendSuccess(() -> Component.translatable("commands.bloodmagicteams.debug.timings.reset"), true);
+        return 1;
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+
+    // --- Bulk network operations (OP only) ---
+
+    private static final String BULK_ALL = "*";
+
+    private enum BulkOp {
+        SET,
+        ADD,
+        RESET
+    }
+
+    private record BulkPlan(List<UUID> teamIds, List<String> unresolved) {
+    }
+
+    private static boolean isTeamList(CommandContext<CommandSourceStack> context) {
+        return StringArgumentType.getString(context, "team").indexOf(',') >= 0;
+    }
+
+    /**
+     * Resolves a team list ("*" or comma separated names/UUIDs) off the server thread,
+     * then applies the operation to every resolved network in a single server-thread task.
+     */
+    private static int startBulk(CommandContext<CommandSourceStack> context, String teamList, BulkOp op) {
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+        int amount = op == BulkOp.RESET ? 0 : IntegerArgumentType.getInteger(context, "amount");
+        UUID actor = sourcePlayerId(context);
+
+        // Snapshot team data on the server thread; the worker only reads this copy
+        Map<UUID, String> allTeams = new HashMap<>(TeamsIntegration.getAllTeams());
+
+        CompletableFuture.supplyAsync(() -> planBulk(teamList, allTeams), Util.backgroundExecutor())
+                .thenAcceptAsync(plan -> {
+                    if (!plan.unresolved().isEmpty()) {
+                        source.sendFailure(Component.translatable("commands.bloodmagicteams.network.bulk.unresolved",
+                                String.join(", ", plan.unresolved())));
+                    }
+                    if (plan.teamIds().isEmpty()) {
+                        source.sendFailure(Component.translatable("commands.bloodmagicteams.team_not_found"));
+                        return;
+                    }
+                    source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.bulk.applying",
+                            plan.teamIds().size()), false);
+                    applyBulk(source, plan, op, amount, actor);
+                }, server)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        BloodMagicTeams.LOGGER.error("Bulk {} on team soul networks failed", op, error);
+                        server.execute(() -> source.sendFailure(
+                                Component.translatable("commands.bloodmagicteams.network.bulk.failed")));
+                    }
+                });
+
+        source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.bulk.resolving"), false);
+        return 1;
+    }
+
+    private static BulkPlan planBulk(String teamList, Map<UUID, String> allTeams) {
+        List<UUID> teamIds = new ArrayList<>();
+        List<String> unresolved = new ArrayList<>();
+
+        if (BULK_ALL.equals(teamList)) {
+            teamIds.addAll(allTeams.keySet());
+            return new BulkPlan(teamIds, unresolved);
+        }
+
+        Map<String, UUID> byName = new HashMap<>();
+        for (Map.Entry<UUID, String> entry : allTeams.entrySet()) {
+            byName.putIfAbsent(entry.getValue().toLowerCase(Locale.ROOT), entry.getKey());
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        for (String part : teamList.split(",")) {
+            String teamArg = part.trim();
+            if (teamArg.isEmpty()) {
+                continue;
+            }
+            UUID teamId = byName.get(teamArg.toLowerCase(Locale.ROOT));
+            if (teamId == null) {
+                try {
+                    UUID parsed = UUID.fromString(teamArg);
+                    if (allTeams.containsKey(parsed)) {
+                        teamId = parsed;
+                    }
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+            if (teamId == null) {
+                unresolved.add(teamArg);
+            } else if (seen.add(teamId)) {
+                teamIds.add(teamId);
+            }
+        }
+        return new BulkPlan(teamIds, unresolved);
+    }
+
+    private static void applyBulk(CommandSourceStack source, BulkPlan plan, BulkOp op, int amount, @Nullable UUID actor) {
+        long total = 0;
+        for (int i = 0; i < plan.teamIds().size(); i++) {
+            UUID teamId = plan.teamIds().get(i);
+            SoulNetwork network = NetworkHelper.getSoulNetwork(teamId);
+            int previous = network.getCurrentEssence();
+            switch (op) {
+                case SET -> {
+                    network.clear();
+                    int added = addUnlogged(network, amount);
+                    NetworkTransactionLog.record(teamId, actor, Source.COMMAND_SET, added - previous);
+                    total += added;
+                }
+                case ADD -> {
+                    int added = addUnlogged(network, amount);
+                    NetworkTransactionLog.record(teamId, actor, Source.COMMAND_ADD, added);
+                    total += added;
+                }
+                case RESET -> {
+                    network.clear();
+                    NetworkTransactionLog.record(teamId, actor, Source.COMMAND_RESET, -previous);
+                }
+            }
+        }
+
+        long totalEssence = total;
+        String opName = op.name().toLowerCase(Locale.ROOT);
+        source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.network.bulk.done",
+                opName, plan.teamIds().size(), totalEssence), true);
+    }
+
+    /**
+     * Adds essence without the resulting Fill event being logged, since the caller logs the command itself.
+     */
+    private static int addUnlogged(SoulNetwork network, int amount) {
+        NetworkTransactionLog.setSuppressed(true);
+        try {
+            return network.add(new SoulTicket(amount), Integer.MAX_VALUE);
+        } finally {
+            NetworkTransactionLog.setSuppressed(false);
+        }
+    }
+
+    @Nullable
+    private static UUID sourcePlayerId(CommandContext<CommandSourceStack> context) {
+        ServerPlayer player = context.getSource().getPlayer();
+        return player != null ? player.getUUID() : null;
+    }
+
+    // --- Bulk binding (OP only) ---
+
+    /**
+     * Result of a bulk bind: how many items were bound, how many bindable items already had an owner,
+     * and how many could not be bound because the inventory would not hand them out.
+     */
+    public record BindResult(int bound, int alreadyBound, int notBound) {
+        public BindResult plus(BindResult other) {
+            return new BindResult(bound + other.bound, alreadyBound + other.alreadyBound, notBound + other.notBound);
+        }
+    }
+
+    /**
+     * Binds every unbound {@link IBindable} in an item handler to the given owner in one pass.
+     * The same {@link Binding} is reused for every stack.
+     * @param handler The inventory to scan
+     * @param binding The binding to apply, typically {@code new Binding(teamId, teamName)}
+     * @param overflow Receives bound items a non-modifiable handler would not take back
+     * @return Counts of bound, already bound and unbindable items
+     */
+    public static BindResult bindAll(IItemHandler handler, Binding binding, Consumer<ItemStack> overflow) {
+        int bound = 0;
+        int alreadyBound = 0;
+        int notBound = 0;
+        IItemHandlerModifiable modifiable = handler instanceof IItemHandlerModifiable m ? m : null;
+
+        for (int slot = 0; slot < handler.getSlots(); slot++) {
+            ItemStack stack = handler.getStackInSlot(slot);
+            if (stack.isEmpty() || !(stack.getItem() instanceof IBindable bindable)) {
+                continue;
+            }
+            if (bindable.getBinding(stack) != null) {
+                alreadyBound += stack.getCount();
+                continue;
+            }
+
+            if (modifiable != null) {
+                ItemStack copy = stack.copy();
+                BindableHelper.applyBinding(copy, binding);
+                modifiable.setStackInSlot(slot, copy);
+                bound += stack.getCount();
+            } else {
+                int count = stack.getCount();
+                int rebound = rebindSlot(handler, slot, count, binding, overflow);
+                bound += rebound;
+                notBound += count - rebound;
+            }
+        }
+
+        return new BindResult(bound, alreadyBound, notBound);
+    }
+
+    /**
+     * Binds the stack in a slot of a handler that may only be changed through extract and insert,
+     * since the stack from {@link IItemHandler#getStackInSlot} must not be modified.
+     * @return The number of items bound; 0 if the handler would not give up the whole stack
+     */
+    private static int rebindSlot(IItemHandler handler, int slot, int count, Binding binding,
+                                  Consumer<ItemStack> overflow) {
+        if (handler.extractItem(slot, count, true).getCount() != count) {
+            return 0;
+        }
+        ItemStack extracted = handler.extractItem(slot, count, false);
+        if (extracted.isEmpty()) {
+            return 0;
+        }
+        BindableHelper.applyBinding(extracted, binding);
+        int bound = extracted.getCount();
+        ItemStack remainder = handler.insertItem(slot, extracted, false);
+        if (!remainder.isEmpty()) {
+            remainder = ItemHandlerHelper.insertItemStacked(handler, remainder, false);
+        }
+        if (!remainder.isEmpty()) {
+            overflow.accept(remainder);
+        }
+        return bound;
+    }
+
+    private static int bindPlayers(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        UUID teamId = resolveTeamId(context);
+        if (teamId == null) return 0;
+
+        Collection<ServerPlayer> targets = EntityArgument.getPlayers(context, "targets");
+        String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
+        Binding binding = new Binding(teamId, teamName);
+
+        BindResult result = new BindResult(0, 0, 0);
+        for (ServerPlayer target : targets) {
+            result = result.plus(bindAll(new PlayerInvWrapper(target.getInventory()), binding,
+                    target.getInventory()::placeItemBackInInventory));
+            target.inventoryMenu.broadcastChanges();
+        }
+
+        BindResult total = result;
+        TeamNetworkMetrics.recordBindings(teamId, total.bound());
+        context.getSource().sendSuccess(() ->
+                Component.translatable("commands.bloodmagicteams.bind.players",
+                        total.bound(), teamName, targets.size(), total.alreadyBound()), true);
+        sendNotBound(context, total);
+        return total.bound();
+    }
+
+    private static int bindBlock(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        UUID teamId = resolveTeamId(context);
+        if (teamId == null) return 0;
+
+        BlockPos pos = BlockPosArgument.getLoadedBlockPos(context, "pos");
+        BlockEntity blockEntity = context.getSource().getLevel().getBlockEntity(pos);
+        IItemHandler handler = null;
+        if (blockEntity != null) {
+            handler = blockEntity.getCapability(ForgeCapabilities.ITEM_HANDLER).resolve()
+                    .orElse(blockEntity instanceof Container container ? new InvWrapper(container) : null);
+        }
+        if (handler == null) {
+            context.getSource().sendFailure(Component.translatable("commands.bloodmagicteams.bind.no_container"));
+            return 0;
+        }
+
+        String teamName = TeamsIntegration.getTeamNameByUuid(teamId);
+        ServerLevel level = context.getSource().getLevel();
+        BindResult result = bindAll(handler, new Binding(teamId, teamName),
+                stack -> Containers.dropItemStack(level, pos.getX() + 0.5, pos.getY() + 1, pos.getZ() + 0.5, stack));
+        TeamNetworkMetrics.recordBindings(teamId, result.bound());
+        blockEntity.setChanged();
+
+        context.getSource().sendSuccess(() ->
+                Component.translatable("commands.bloodmagicteams.bind.block",
+                        result.bound(), teamName, result.alreadyBound()), true);
+        sendNotBound(context, result);
+        return result.bound();
+    }
+
+    private static void sendNotBound(CommandContext<CommandSourceStack> context, BindResult result) {
+        if (result.notBound() > 0) {
+            context.getSource().sendFailure(Component.translatable("commands.bloodmagicteams.bind.not_bound",
+                    result.notBound()));
+        }
+    }
+
+    // --- Bound item scan (OP only) ---
+
+    private static final int SCAN_FIND_MAX_LINES = 10;
+
+    private static int scanStart(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        boolean started = BoundItemScanner.start(source.getServer(), result -> {
+            if (result.error() != null) {
+                source.sendFailure(Component.translatable("commands.bloodmagicteams.scan.failed"));
+            } else {
+                source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.scan.complete",
+                        result.boundItems(), result.sourcesScanned(), result.sourcesReused()), true);
+            }
+        });
+
+        if (!started) {
+            source.sendFailure(Component.translatable("commands.bloodmagicteams.scan.already_running"));
+            return 0;
+        }
+        source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.scan.started"), true);
+        return 1;
+    }
+
+    private static int scanFind(CommandContext<CommandSourceStack> context) {
+        String ownerArg = StringArgumentType.getString(context, "owner");
+        UUID ownerId = null;
+        try {
+            ownerId = UUID.fromString(ownerArg);
+        } catch (IllegalArgumentException ignored) {
+            // Not a UUID, try it as a team name
+            ownerId = TeamsIntegration.findTeamIdByName(ownerArg);
+        }
+        if (ownerId == null) {
+            context.getSource().sendFailure(Component.translatable("commands.bloodmagicteams.team_not_found"));
+            return 0;
+        }
+
+        // The index can be large, so it is read and searched off the server thread
+        CommandSourceStack source = context.getSource();
+        BoundItemScanner.find(source.getServer(), ownerId, locations -> {
+            if (locations == null) {
+                source.sendFailure(Component.translatable("commands.bloodmagicteams.scan.failed"));
+                return;
+            }
+            int total = 0;
+            for (BoundItemIndex.Location location : locations) {
+                total += location.count();
+            }
+
+            int totalCount = total;
+            source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.scan.find",
+                    totalCount, ownerArg, locations.size()), false);
+            for (int i = 0; i < Math.min(SCAN_FIND_MAX_LINES, locations.size()); i++) {
+                BoundItemIndex.Location location = locations.get(i);
+                source.sendSuccess(() -> Component.translatable("commands.bloodmagicteams.scan.location",
+                        location.source(), location.count()), false);
+            }
+        });
+        return 1;
+    }
 }
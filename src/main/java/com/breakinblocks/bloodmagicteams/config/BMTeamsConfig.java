@@ -10,6 +10,24 @@ public class BMTeamsConfig {
     public static final ForgeConfigSpec.BooleanValue SHOW_BINDING_UI;
     public static final ForgeConfigSpec.BooleanValue ALLOW_BINDING_MODE_COMMAND;
     public static final ForgeConfigSpec.EnumValue<DefaultBindingMode> DEFAULT_BINDING_MODE;
+    public static final ForgeConfigSpec.IntValue BINDING_PROMPT_TIMEOUT;
+    public static final ForgeConfigSpec.IntValue SCANNER_THREADS;
+    public static final ForgeConfigSpec.BooleanValue ENABLE_HANDLER_TIMINGS;
+    public static final ForgeConfigSpec.IntValue NETWORK_LOG_SIZE;
+    public static final ForgeConfigSpec.IntValue NETWORK_LOG_FLUSH_INTERVAL;
+    public static final ForgeConfigSpec.IntValue NETWORK_LOG_MAX_RECORDS;
+    public static final ForgeConfigSpec.IntValue METRICS_SAMPLE_INTERVAL;
+    public static final ForgeConfigSpec.BooleanValue ENABLE_JMX;
+    public static final ForgeConfigSpec.IntValue PACKET_RATE_LIMIT;
+    public static final ForgeConfigSpec.IntValue PACKET_BURST;
+    public static final ForgeConfigSpec.BooleanValue ENABLE_DRAIN_QUOTAS;
+    public static final ForgeConfigSpec.IntValue QUOTA_WINDOW_MINUTES;
+    public static final ForgeConfigSpec.BooleanValue QUOTA_ROLLING;
+    public static final ForgeConfigSpec.BooleanValue DEDICATED_TEAM_NETWORK_STORAGE;
+    public static final ForgeConfigSpec.BooleanValue ENABLE_ORPHAN_SWEEP;
+    public static final ForgeConfigSpec.IntValue ORPHAN_SWEEP_INTERVAL;
+    public static final ForgeConfigSpec.IntValue ORPHAN_SWEEP_BUDGET;
+    public static final ForgeConfigSpec.EnumValue<OrphanDestination> ORPHANED_NETWORK_DESTINATION;
 
     static {
         BUILDER.comment("BloodMagic Teams Configuration");
@@ -34,6 +52,89 @@ public class BMTeamsConfig {
                         "ASK = always show the binding UI")
                 .defineEnum("defaultBindingMode", DefaultBindingMode.ASK);
 
+        BINDING_PROMPT_TIMEOUT = BUILDER
+                .comment("How long (in ticks) the server waits for an answer to the binding UI before forgetting the request")
+                .defineInRange("bindingPromptTimeout", 600, 20, 12000);
+
+        BUILDER.pop();
+        BUILDER.push("admin");
+
+        SCANNER_THREADS = BUILDER
+                .comment("Worker threads used by /bloodmagicteams scan to read region and player files")
+                .defineInRange("scannerThreads", 2, 1, 16);
+
+        ENABLE_HANDLER_TIMINGS = BUILDER
+                .comment("Record how long each BloodMagic Teams event handler and packet takes, shown by /bloodmagicteams debug timings")
+                .define("enableHandlerTimings", false);
+
+        BUILDER.pop();
+        BUILDER.push("network");
+
+        NETWORK_LOG_SIZE = BUILDER
+                .comment("Number of recent essence transactions kept in memory per team soul network")
+                .defineInRange("transactionLogSize", 256, 16, 65536);
+
+        NETWORK_LOG_FLUSH_INTERVAL = BUILDER
+                .comment("How often (in ticks) team transaction logs are written to disk")
+                .defineInRange("transactionLogFlushInterval", 1200, 20, 72000);
+
+        NETWORK_LOG_MAX_RECORDS = BUILDER
+                .comment("Maximum transactions kept on disk per team before the oldest half is discarded")
+                .defineInRange("transactionLogMaxRecords", 10000, 100, 10000000);
+
+        METRICS_SAMPLE_INTERVAL = BUILDER
+                .comment("How often (in ticks) team network essence, peaks and rates are sampled")
+                .defineInRange("metricsSampleInterval", 100, 20, 72000);
+
+        ENABLE_JMX = BUILDER
+                .comment("Publish team network metrics as a JMX MBean (com.breakinblocks.bloodmagicteams:type=TeamNetworks)")
+                .define("enableJmx", true);
+
+        PACKET_RATE_LIMIT = BUILDER
+                .comment("Packets per second each player may send on the BloodMagic Teams channel; extra packets are dropped")
+                .defineInRange("packetRateLimit", 4, 1, 100);
+
+        PACKET_BURST = BUILDER
+                .comment("Number of packets a player may send at once before packetRateLimit applies")
+                .defineInRange("packetBurst", 8, 1, 200);
+
+        ENABLE_DRAIN_QUOTAS = BUILDER
+                .comment("Enforce the per-member drain quota teams can set in their FTB Teams settings")
+                .define("enableDrainQuotas", true);
+
+        QUOTA_WINDOW_MINUTES = BUILDER
+                .comment("Length of a drain quota window in minutes. Windows are aligned to UTC, so 1440 resets at midnight UTC")
+                .defineInRange("drainQuotaWindowMinutes", 1440, 1, 10080);
+
+        QUOTA_ROLLING = BUILDER
+                .comment("Also count the previous window's usage, fading out as the current window progresses",
+                        "false = usage resets completely at each window boundary")
+                .define("rollingDrainQuota", false);
+
+        DEDICATED_TEAM_NETWORK_STORAGE = BUILDER
+                .comment("Save team soul networks in BloodMagic Teams' own files instead of BloodMagic's soul network file",
+                        "Turning this off moves them back to BloodMagic's file on the next start")
+                .define("dedicatedTeamNetworkStorage", true);
+
+        ENABLE_ORPHAN_SWEEP = BUILDER
+                .comment("Periodically remove stored networks and binding targets of teams that no longer exist")
+                .define("enableOrphanSweep", true);
+
+        ORPHAN_SWEEP_INTERVAL = BUILDER
+                .comment("How often (in ticks) a sweep for deleted teams starts")
+                .defineInRange("orphanSweepInterval", 6000, 200, 1728000);
+
+        ORPHAN_SWEEP_BUDGET = BUILDER
+                .comment("Teams and players checked per tick while a sweep is running")
+                .defineInRange("orphanSweepBudget", 16, 1, 1024);
+
+        ORPHANED_NETWORK_DESTINATION = BUILDER
+                .comment("What happens to the LP of a deleted team's network",
+                        "ARCHIVE = keep the network in data/bloodmagicteams_networks_archive.dat",
+                        "MEMBERS = split the LP between the team's last known members; archived if none are known",
+                        "VOID = discard it")
+                .defineEnum("orphanedNetworkDestination", OrphanDestination.ARCHIVE);
+
         BUILDER.pop();
         SPEC = BUILDER.build();
     }
@@ -43,4 +144,10 @@ public class BMTeamsConfig {
         TEAM,
         ASK
     }
+
+    public enum OrphanDestination {
+        ARCHIVE,
+        MEMBERS,
+        VOID
+    }
 }
@@ -0,0 +1,161 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * On-disk index of bound BloodMagic items, built by {@link BoundItemScanner}.
+ * Keyed by source (a chunk, an entity chunk or a player file), each holding the
+ * timestamp it was scanned at and the bound item count per owner UUID. Chunks without
+ * bound items have no entry; each region file's chunk timestamps are kept instead, so
+ * unchanged chunks can still be skipped by the next scan.
+ */
+public class BoundItemIndex {
+    private static final String SOURCES_KEY = "Sources";
+    private static final String SOURCE_KEY = "Key";
+    private static final String TIMESTAMP_KEY = "Time";
+    private static final String OWNERS_KEY = "Owners";
+    private static final String OWNER_KEY = "Id";
+    private static final String COUNT_KEY = "Count";
+    private static final String REGIONS_KEY = "Regions";
+    private static final String TIMESTAMPS_KEY = "Times";
+    private static final String STARTED_KEY = "Started";
+
+    /**
+     * Scan result for one source.
+     * @param timestamp Region chunk timestamp or player file modification time at scan
+     * @param counts Bound item count per owner UUID
+     */
+    public record SourceEntry(long timestamp, Map<UUID, Integer> counts) {
+    }
+
+    /**
+     * A place where items bound to a given owner were found.
+     */
+    public record Location(String source, int count) {
+    }
+
+    private final Map<String, SourceEntry> sources;
+    // Region file key to the timestamp each of its 1024 chunks had when scanned
+    private final Map<String, int[]> regionTimestamps;
+    // Epoch second the scan that built this index started at, 0 if unknown
+    private final long scanStarted;
+
+    public BoundItemIndex(Map<String, SourceEntry> sources, Map<String, int[]> regionTimestamps, long scanStarted) {
+        this.sources = sources;
+        this.regionTimestamps = regionTimestamps;
+        this.scanStarted = scanStarted;
+    }
+
+    public static BoundItemIndex empty() {
+        return new BoundItemIndex(Collections.emptyMap(), Collections.emptyMap(), 0L);
+    }
+
+    public Map<String, SourceEntry> getSources() {
+        return sources;
+    }
+
+    public Map<String, int[]> getRegionTimestamps() {
+        return regionTimestamps;
+    }
+
+    /**
+     * Gets the epoch second the scan that built this index started at, or 0 if unknown.
+     * Region timestamps are in whole seconds, so chunks stamped at or after this may have changed since.
+     */
+    public long getScanStarted() {
+        return scanStarted;
+    }
+
+    /**
+     * Finds every indexed source holding items bound to an owner, largest first.
+     */
+    public List<Location> find(UUID ownerId) {
+        List<Location> locations = new ArrayList<>();
+        for (Map.Entry<String, SourceEntry> entry : sources.entrySet()) {
+            Integer count = entry.getValue().counts().get(ownerId);
+            if (count != null) {
+                locations.add(new Location(entry.getKey(), count));
+            }
+        }
+        locations.sort((a, b) -> Integer.compare(b.count(), a.count()));
+        return locations;
+    }
+
+    public static BoundItemIndex load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+
+        CompoundTag root = NbtIo.readCompressed(file.toFile());
+        ListTag list = root.getList(SOURCES_KEY, Tag.TAG_COMPOUND);
+        Map<String, SourceEntry> sources = new HashMap<>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            CompoundTag sourceTag = list.getCompound(i);
+            ListTag ownerList = sourceTag.getList(OWNERS_KEY, Tag.TAG_COMPOUND);
+            Map<UUID, Integer> counts = new HashMap<>(ownerList.size());
+            for (int j = 0; j < ownerList.size(); j++) {
+                CompoundTag ownerTag = ownerList.getCompound(j);
+                counts.put(ownerTag.getUUID(OWNER_KEY), ownerTag.getInt(COUNT_KEY));
+            }
+            sources.put(sourceTag.getString(SOURCE_KEY), new SourceEntry(sourceTag.getLong(TIMESTAMP_KEY), counts));
+        }
+
+        ListTag regionList = root.getList(REGIONS_KEY, Tag.TAG_COMPOUND);
+        Map<String, int[]> regionTimestamps = new HashMap<>(regionList.size());
+        for (int i = 0; i < regionList.size(); i++) {
+            CompoundTag regionTag = regionList.getCompound(i);
+            regionTimestamps.put(regionTag.getString(SOURCE_KEY), regionTag.getIntArray(TIMESTAMPS_KEY));
+        }
+        return new BoundItemIndex(sources, regionTimestamps, root.getLong(STARTED_KEY));
+    }
+
+    public void save(Path file) throws IOException {
+        ListTag list = new ListTag();
+        for (Map.Entry<String, SourceEntry> entry : sources.entrySet()) {
+            CompoundTag sourceTag = new CompoundTag();
+            sourceTag.putString(SOURCE_KEY, entry.getKey());
+            sourceTag.putLong(TIMESTAMP_KEY, entry.getValue().timestamp());
+            ListTag ownerList = new ListTag();
+            for (Map.Entry<UUID, Integer> count : entry.getValue().counts().entrySet()) {
+                CompoundTag ownerTag = new CompoundTag();
+                ownerTag.putUUID(OWNER_KEY, count.getKey());
+                ownerTag.putInt(COUNT_KEY, count.getValue());
+                ownerList.add(ownerTag);
+            }
+            sourceTag.put(OWNERS_KEY, ownerList);
+            list.add(sourceTag);
+        }
+
+        ListTag regionList = new ListTag();
+        for (Map.Entry<String, int[]> entry : regionTimestamps.entrySet()) {
+            CompoundTag regionTag = new CompoundTag();
+            regionTag.putString(SOURCE_KEY, entry.getKey());
+            regionTag.put(TIMESTAMPS_KEY, new IntArrayTag(entry.getValue()));
+            regionList.add(regionTag);
+        }
+
+        CompoundTag root = new CompoundTag();
+        root.put(SOURCES_KEY, list);
+        root.put(REGIONS_KEY, regionList);
+        root.putLong(STARTED_KEY, scanStarted);
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        NbtIo.writeCompressed(root, temp.toFile());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
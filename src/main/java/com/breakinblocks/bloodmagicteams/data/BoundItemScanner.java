@@ -0,0 +1,433 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.dimension.DimensionType;
+import net.minecraft.world.level.storage.LevelResource;
+import net.minecraftforge.registries.ForgeRegistries;
+import wayoftime.bloodmagic.common.item.IBindable;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Scans saved region files and player data for bound BloodMagic items and writes a {@link BoundItemIndex}.
+ * Files are read directly (never through the live chunk storage) on a worker pool, so the server thread
+ * is not blocked. Chunks whose region timestamp has not changed since the last scan, and predates it, reuse their old entry;
+ * only chunks holding bound items get an entry, the rest are covered by each region's timestamp table.
+ * Only data already saved to disk is seen; run {@code /save-all} first for an up-to-date picture.
+ */
+public class BoundItemScanner {
+    private static final int SECTOR_SIZE = 4096;
+    private static final int CHUNKS_PER_REGION = 1024;
+    private static final String INDEX_FILE = "bloodmagicteams/bound_item_index.dat";
+
+    private static final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Threads for work that waits on files or on the worker pool, so it never takes a pool slot
+    private static final Executor BACKGROUND = runnable -> {
+        Thread thread = new Thread(runnable, "BMTeams-Scanner");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    @Nullable
+    private static volatile BoundItemIndex lastIndex;
+
+    /**
+     * Progress and outcome of a scan, reported back on the server thread.
+     */
+    public record ScanResult(int sourcesScanned, int sourcesReused, int boundItems, @Nullable Throwable error) {
+    }
+
+    private record RegionDir(String dimension, String kind, Path dir) {
+    }
+
+    public static boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Finds where items bound to an owner were seen, using the index from the last scan. If this
+     * session has not scanned yet, the index is loaded from disk on a background thread.
+     * @param onComplete Runs on the server thread with the locations, largest first, or null if
+     *                   the index could not be read. Not called if the server stops first.
+     */
+    public static void find(MinecraftServer server, UUID ownerId, Consumer<List<BoundItemIndex.Location>> onComplete) {
+        BoundItemIndex cached = lastIndex;
+        Path indexFile = indexFile(server);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return cached != null ? cached : BoundItemIndex.load(indexFile);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, BACKGROUND).whenComplete((index, error) -> {
+            if (error != null) {
+                BloodMagicTeams.LOGGER.error("Failed to read bound item index", error);
+            }
+            List<BoundItemIndex.Location> locations = index != null ? index.find(ownerId) : null;
+            complete(server, () -> {
+                if (index != null && lastIndex == null) {
+                    lastIndex = index;
+                }
+                onComplete.accept(locations);
+            });
+        });
+    }
+
+    /**
+     * Forgets the cached index. Call when the server stops, so another world never sees it.
+     */
+    public static void clear() {
+        lastIndex = null;
+    }
+
+    /**
+     * Starts a scan on a worker pool. The callback runs on the server thread when the scan finishes.
+     * @return false if a scan is already running
+     */
+    public static boolean start(MinecraftServer server, Consumer<ScanResult> onComplete) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        // Resolve paths on the server thread, everything else happens on the workers
+        Path indexFile = indexFile(server);
+        Path worldRoot = server.getWorldPath(LevelResource.ROOT);
+        Path playerDir = server.getWorldPath(LevelResource.PLAYER_DATA_DIR);
+        List<RegionDir> regionDirs = new ArrayList<>();
+        for (ServerLevel level : server.getAllLevels()) {
+            Path dimDir = DimensionType.getStorageFolder(level.dimension(), worldRoot);
+            String dimension = level.dimension().location().toString();
+            regionDirs.add(new RegionDir(dimension, "region", dimDir.resolve("region")));
+            regionDirs.add(new RegionDir(dimension, "entities", dimDir.resolve("entities")));
+        }
+
+        int threads = BMTeamsConfig.SCANNER_THREADS.get();
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "BMTeams-Scanner-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        AtomicReference<BoundItemIndex> built = new AtomicReference<>();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return scan(indexFile, regionDirs, playerDir, pool, built);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, BACKGROUND).whenComplete((result, error) -> {
+            pool.shutdown();
+            running.set(false);
+            ScanResult outcome = error != null ? new ScanResult(0, 0, 0, error) : result;
+            if (error != null) {
+                BloodMagicTeams.LOGGER.error("Bound item scan failed", error);
+            }
+            complete(server, () -> {
+                if (built.get() != null) {
+                    lastIndex = built.get();
+                }
+                onComplete.accept(outcome);
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Runs a completion on the server thread, unless that server has stopped in the meantime.
+     */
+    private static void complete(MinecraftServer server, Runnable completion) {
+        if (server.isRunning()) {
+            server.execute(() -> {
+                if (server.isRunning()) {
+                    completion.run();
+                }
+            });
+        }
+    }
+
+    private static Path indexFile(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(INDEX_FILE);
+    }
+
+    private static ScanResult scan(Path indexFile, List<RegionDir> regionDirs, Path playerDir,
+                                   ExecutorService pool, AtomicReference<BoundItemIndex> built) throws IOException {
+        long started = System.currentTimeMillis() / 1000L;
+        BoundItemIndex previousIndex = BoundItemIndex.load(indexFile);
+        long previousStarted = previousIndex.getScanStarted();
+        Map<String, BoundItemIndex.SourceEntry> previous = previousIndex.getSources();
+        Map<String, int[]> previousRegions = previousIndex.getRegionTimestamps();
+        Map<String, BoundItemIndex.SourceEntry> current = new ConcurrentHashMap<>();
+        Map<String, int[]> currentRegions = new ConcurrentHashMap<>();
+        AtomicInteger scanned = new AtomicInteger();
+        AtomicInteger reused = new AtomicInteger();
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (RegionDir regionDir : regionDirs) {
+            for (Path file : listFiles(regionDir.dir(), ".mca")) {
+                tasks.add(CompletableFuture.runAsync(() -> scanRegion(regionDir, file, previous, previousRegions,
+                        previousStarted, current, currentRegions, scanned, reused), pool));
+            }
+        }
+        for (Path file : listFiles(playerDir, ".dat")) {
+            tasks.add(CompletableFuture.runAsync(() ->
+                    scanPlayer(file, previous, current, scanned, reused), pool));
+        }
+        for (CompletableFuture<Void> task : tasks) {
+            task.join();
+        }
+
+        BoundItemIndex index = new BoundItemIndex(new HashMap<>(current), new HashMap<>(currentRegions), started);
+        index.save(indexFile);
+        built.set(index);
+
+        int boundItems = 0;
+        for (BoundItemIndex.SourceEntry entry : current.values()) {
+            for (int count : entry.counts().values()) {
+                boundItems += count;
+            }
+        }
+        return new ScanResult(scanned.get(), reused.get(), boundItems, null);
+    }
+
+    private static List<Path> listFiles(Path dir, String extension) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(extension)).toList();
+        }
+    }
+
+    private static void scanRegion(RegionDir regionDir, Path file, Map<String, BoundItemIndex.SourceEntry> previous,
+                                   Map<String, int[]> previousRegions, long previousStarted,
+                                   Map<String, BoundItemIndex.SourceEntry> current,
+                                   Map<String, int[]> currentRegions, AtomicInteger scanned, AtomicInteger reused) {
+        // File names are r.<x>.<z>.mca
+        String[] parts = file.getFileName().toString().split("\\.");
+        if (parts.length != 4) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < 2L * SECTOR_SIZE) {
+                return;
+            }
+            int regionX = Integer.parseInt(parts[1]);
+            int regionZ = Integer.parseInt(parts[2]);
+            String regionKey = regionDir.dimension() + "|" + regionDir.kind() + "|" + regionX + "," + regionZ;
+            int[] oldTimestamps = previousRegions.get(regionKey);
+            if (oldTimestamps != null && oldTimestamps.length != CHUNKS_PER_REGION) {
+                oldTimestamps = null;
+            }
+            // Timestamp of each chunk as scanned, 0 for chunks that are absent or could not be read
+            int[] timestamps = new int[CHUNKS_PER_REGION];
+
+            ByteBuffer header = ByteBuffer.allocate(2 * SECTOR_SIZE);
+            readFully(channel, header, 0);
+            header.flip();
+
+            for (int i = 0; i < CHUNKS_PER_REGION; i++) {
+                int location = header.getInt(i * 4);
+                if (location == 0) {
+                    continue;
+                }
+                int rawTimestamp = header.getInt(SECTOR_SIZE + i * 4);
+                long timestamp = rawTimestamp & 0xFFFFFFFFL;
+                int chunkX = regionX * 32 + (i & 31);
+                int chunkZ = regionZ * 32 + (i >> 5);
+                String key = regionDir.dimension() + "|" + regionDir.kind() + "|" + chunkX + "," + chunkZ;
+
+                // Timestamps are in whole seconds, so a chunk stamped in or after the second the last scan
+                // started may have been rewritten after it was read
+                if (oldTimestamps != null && oldTimestamps[i] != 0 && oldTimestamps[i] == rawTimestamp
+                        && timestamp < previousStarted) {
+                    // Unchanged; chunks without an entry held no bound items
+                    BoundItemIndex.SourceEntry old = previous.get(key);
+                    if (old != null) {
+                        current.put(key, old);
+                    }
+                    timestamps[i] = rawTimestamp;
+                    reused.incrementAndGet();
+                    continue;
+                }
+
+                CompoundTag chunk = readChunk(channel, location, regionDir.dir(), chunkX, chunkZ);
+                scanned.incrementAndGet();
+                if (chunk != null) {
+                    Map<UUID, Integer> counts = new HashMap<>();
+                    collectBindings(chunk, counts);
+                    if (!counts.isEmpty()) {
+                        current.put(key, new BoundItemIndex.SourceEntry(timestamp, counts));
+                    }
+                    timestamps[i] = rawTimestamp;
+                }
+            }
+            currentRegions.put(regionKey, timestamps);
+        } catch (IOException | RuntimeException e) {
+            BloodMagicTeams.LOGGER.warn("Failed to scan region file {}", file, e);
+        }
+    }
+
+    private static void scanPlayer(Path file, Map<String, BoundItemIndex.SourceEntry> previous,
+                                   Map<String, BoundItemIndex.SourceEntry> current,
+                                   AtomicInteger scanned, AtomicInteger reused) {
+        String name = file.getFileName().toString();
+        String key = "player|" + name.substring(0, name.length() - ".dat".length());
+        try {
+            long timestamp = Files.getLastModifiedTime(file).toMillis();
+            BoundItemIndex.SourceEntry old = previous.get(key);
+            if (old != null && old.timestamp() == timestamp) {
+                current.put(key, old);
+                reused.incrementAndGet();
+                return;
+            }
+
+            CompoundTag playerData = NbtIo.readCompressed(file.toFile());
+            scanned.incrementAndGet();
+            Map<UUID, Integer> counts = new HashMap<>();
+            collectBindings(playerData, counts);
+            current.put(key, new BoundItemIndex.SourceEntry(timestamp, counts.isEmpty() ? Map.of() : counts));
+        } catch (IOException | RuntimeException e) {
+            BloodMagicTeams.LOGGER.warn("Failed to scan player file {}", file, e);
+        }
+    }
+
+    @Nullable
+    private static CompoundTag readChunk(FileChannel channel, int location, Path dir, int chunkX, int chunkZ)
+            throws IOException {
+        int sectorOffset = location >>> 8;
+        int sectorCount = location & 0xFF;
+        ByteBuffer data = ByteBuffer.allocate(sectorCount * SECTOR_SIZE);
+        readFully(channel, data, (long) sectorOffset * SECTOR_SIZE);
+        data.flip();
+        if (data.remaining() < 5) {
+            return null;
+        }
+
+        int length = data.getInt();
+        byte type = data.get();
+        InputStream raw;
+        if ((type & 0x80) != 0) {
+            // Oversized chunk stored in an external file
+            Path external = dir.resolve("c." + chunkX + "." + chunkZ + ".mcc");
+            if (!Files.exists(external)) {
+                return null;
+            }
+            raw = Files.newInputStream(external);
+        } else {
+            if (length <= 1 || length - 1 > data.remaining()) {
+                return null;
+            }
+            raw = new ByteArrayInputStream(data.array(), 5, length - 1);
+        }
+
+        InputStream decompressed = switch (type & 0x7F) {
+            case 1 -> new GZIPInputStream(raw);
+            case 2 -> new InflaterInputStream(raw);
+            case 3 -> raw;
+            default -> null;
+        };
+        if (decompressed == null) {
+            raw.close();
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(decompressed))) {
+            return NbtIo.read(in);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Walks an NBT tree and counts serialized item stacks of bindable items that carry a binding.
+     * Nested inventories (shulker boxes, backpacks) are covered because the walk recurses into stack tags.
+     */
+    static void collectBindings(Tag tag, Map<UUID, Integer> counts) {
+        if (tag instanceof CompoundTag compound) {
+            if (compound.contains("id", Tag.TAG_STRING) && compound.contains("tag", Tag.TAG_COMPOUND)) {
+                UUID owner = findOwner(compound);
+                if (owner != null) {
+                    counts.merge(owner, Math.max(1, compound.getByte("Count")), Integer::sum);
+                }
+            }
+            for (String key : compound.getAllKeys()) {
+                Tag child = compound.get(key);
+                if (child instanceof CompoundTag || child instanceof ListTag) {
+                    collectBindings(child, counts);
+                }
+            }
+        } else if (tag instanceof ListTag list) {
+            if (list.getElementType() == Tag.TAG_COMPOUND || list.getElementType() == Tag.TAG_LIST) {
+                for (Tag child : list) {
+                    collectBindings(child, counts);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static UUID findOwner(CompoundTag stackTag) {
+        ResourceLocation itemId = ResourceLocation.tryParse(stackTag.getString("id"));
+        if (itemId == null) {
+            return null;
+        }
+        Item item = ForgeRegistries.ITEMS.getValue(itemId);
+        if (!(item instanceof IBindable)) {
+            return null;
+        }
+
+        // A serialized Binding is a compound holding the owner UUID and name
+        CompoundTag tag = stackTag.getCompound("tag");
+        for (String key : tag.getAllKeys()) {
+            if (tag.get(key) instanceof CompoundTag binding && binding.hasUUID("id") && binding.contains("name", Tag.TAG_STRING)) {
+                return binding.getUUID("id");
+            }
+        }
+        return null;
+    }
+}
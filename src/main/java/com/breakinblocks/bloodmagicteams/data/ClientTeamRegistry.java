@@ -0,0 +1,82 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.team.BindingRestriction;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Client-side mirror of party/server team names, colors and binding restrictions.
+ * Populated by {@link com.breakinblocks.bloodmagicteams.network.TeamSyncPacket} so the client
+ * never needs the FTB Teams manager to render team-bound tooltips.
+ */
+public class ClientTeamRegistry {
+
+    /**
+     * A synced team's display data.
+     */
+    public record TeamEntry(String name, int color, BindingRestriction restriction) {
+    }
+
+    private static final Map<UUID, TeamEntry> teams = new ConcurrentHashMap<>();
+
+    // Sync index assigned by the server to each team, used by later updates instead of the UUID
+    private static final Map<Integer, UUID> teamsByIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Checks if a UUID belongs to a known party/server team.
+     */
+    public static boolean isTeam(UUID teamId) {
+        return teams.containsKey(teamId);
+    }
+
+    /**
+     * Gets the synced data for a team, or null if unknown.
+     */
+    @Nullable
+    public static TeamEntry get(UUID teamId) {
+        return teams.get(teamId);
+    }
+
+    /**
+     * Gets the synced display name for a team, or null if unknown.
+     */
+    @Nullable
+    public static String getName(UUID teamId) {
+        TeamEntry entry = teams.get(teamId);
+        return entry != null ? entry.name() : null;
+    }
+
+    /**
+     * Records a team under its sync index.
+     */
+    public static void define(int index, UUID teamId, TeamEntry entry) {
+        teamsByIndex.put(index, teamId);
+        teams.put(teamId, entry);
+    }
+
+    /**
+     * Replaces the data of the team with the given sync index. Unknown indices are ignored.
+     */
+    public static void update(int index, UnaryOperator<TeamEntry> updater) {
+        UUID teamId = teamsByIndex.get(index);
+        if (teamId != null) {
+            teams.computeIfPresent(teamId, (id, entry) -> updater.apply(entry));
+        }
+    }
+
+    public static void removeIndex(int index) {
+        UUID teamId = teamsByIndex.remove(index);
+        if (teamId != null) {
+            teams.remove(teamId);
+        }
+    }
+
+    public static void clear() {
+        teams.clear();
+        teamsByIndex.clear();
+    }
+}
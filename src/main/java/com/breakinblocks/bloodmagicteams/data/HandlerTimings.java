@@ -0,0 +1,153 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Per-handler latency histograms for the BMTeams event handlers and packet work, shown by
+ * {@code /bloodmagicteams debug timings}. Enabled with {@link BMTeamsConfig#ENABLE_HANDLER_TIMINGS}.
+ * <p>
+ * Histograms use fixed log-linear buckets (eight per power of two, so about 12% resolution)
+ * in a preallocated array, so recording a sample is a bucket index calculation and an atomic
+ * increment with no allocation. When disabled, {@link #start()} returns 0 and nothing is recorded.
+ */
+public final class HandlerTimings {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Up to 2^40 ns (about 18 minutes); slower samples land in the last bucket
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    /**
+     * The instrumented handlers. Packet timers cover the work queued to the main thread.
+     */
+    public enum Timer {
+        RIGHT_CLICK("onPlayerRightClickPre"),
+        ITEM_BIND("onItemBind"),
+        PLAYER_LOGGED_IN("onPlayerLoggedIn"),
+        PLAYER_LOGGED_OUT("onPlayerLoggedOut"),
+        SERVER_TICK("onServerTick"),
+        SERVER_STOPPED("onServerStopped"),
+        ITEM_TOOLTIP("onItemTooltip"),
+        BINDING_MODE_PACKET("BindingModePacket"),
+        OPEN_BINDING_SCREEN_PACKET("OpenBindingScreenPacket"),
+        TEAM_SYNC_PACKET("TeamSyncPacket"),
+        CAPABILITIES_PACKET("CapabilitiesPacket");
+
+        private final String displayName;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        Timer(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        private void record(long nanos) {
+            counts.incrementAndGet(bucketFor(nanos));
+            max.accumulate(nanos);
+        }
+
+        /**
+         * Copies the histogram for reporting. Samples recorded while copying may be left out.
+         */
+        public Snapshot snapshot() {
+            long[] copy = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                copy[i] = counts.get(i);
+                total += copy[i];
+            }
+            return new Snapshot(copy, total, max.get());
+        }
+
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            max.reset();
+        }
+    }
+
+    /**
+     * A copy of one handler's histogram.
+     * @param count Number of recorded samples
+     * @param maxNanos Slowest sample
+     */
+    public record Snapshot(long[] buckets, long count, long maxNanos) {
+        /**
+         * Gets the value at a percentile, as the upper bound of the bucket it falls in.
+         * @param percentile Between 0 and 100
+         */
+        public long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+    }
+
+    private HandlerTimings() {
+    }
+
+    /**
+     * Starts timing a handler.
+     * @return The start time to pass to {@link #record}, or 0 if timings are disabled
+     */
+    public static long start() {
+        return BMTeamsConfig.ENABLE_HANDLER_TIMINGS.get() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@link #start()}. Does nothing if timings were disabled at the start.
+     */
+    public static void record(Timer timer, long start) {
+        if (start != 0) {
+            timer.record(System.nanoTime() - start);
+        }
+    }
+
+    public static void reset() {
+        for (Timer timer : Timer.values()) {
+            timer.reset();
+        }
+    }
+
+    private static int bucketFor(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket + 1 < BUCKETS ? lowerBound(bucket + 1) - 1 : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,244 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import net.minecraft.Util;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks how much essence each member has drained from their team's soul network in the
+ * current quota window. Counters are {@link LongAdder}s in a team to member table, so
+ * recording a drain never contends or allocates once a member has an entry.
+ * <p>
+ * Windows are aligned to wall-clock time ({@link BMTeamsConfig#QUOTA_WINDOW_MINUTES}); with the
+ * default of 1440 minutes they reset at midnight UTC. In rolling mode the previous window's usage
+ * is also counted, scaled down as the current window progresses.
+ */
+public class MemberDrainQuotas {
+    private static final String FILE = "bloodmagicteams/drain_quotas.dat";
+    private static final int FORMAT_VERSION = 1;
+
+    private static final class Usage {
+        private final LongAdder current = new LongAdder();
+        private volatile long previous;
+    }
+
+    private static final Map<UUID, Map<UUID, Usage>> usage = new ConcurrentHashMap<>();
+
+    private static volatile long windowIndex = -1;
+    private static volatile boolean dirty = false;
+
+    // Orders saves, so a slow periodic write cannot replace the newer one made at shutdown
+    private static long saveSequence = 0;
+    private static long writtenSequence = 0;
+
+    private MemberDrainQuotas() {
+    }
+
+    /**
+     * Gets a member's usage counted against their quota.
+     */
+    public static long getUsage(UUID teamId, UUID playerId) {
+        Map<UUID, Usage> members = usage.get(teamId);
+        Usage entry = members != null ? members.get(playerId) : null;
+        if (entry == null) {
+            return 0;
+        }
+        long current = entry.current.sum();
+        if (!BMTeamsConfig.QUOTA_ROLLING.get() || entry.previous == 0) {
+            return current;
+        }
+        long windowMillis = windowMillis();
+        double elapsed = (double) (System.currentTimeMillis() % windowMillis) / windowMillis;
+        return current + (long) (entry.previous * (1.0 - elapsed));
+    }
+
+    /**
+     * Checks whether draining an amount would take a member over a quota.
+     */
+    public static boolean wouldExceed(UUID teamId, UUID playerId, int amount, int quota) {
+        return getUsage(teamId, playerId) + amount > quota;
+    }
+
+    public static void recordDrain(UUID teamId, UUID playerId, int amount) {
+        Map<UUID, Usage> members = usage.get(teamId);
+        if (members == null) {
+            members = usage.computeIfAbsent(teamId, id -> new ConcurrentHashMap<>());
+        }
+        Usage entry = members.get(playerId);
+        if (entry == null) {
+            entry = members.computeIfAbsent(playerId, id -> new Usage());
+        }
+        entry.current.add(amount);
+        dirty = true;
+    }
+
+    /**
+     * Gets every member's usage for a team.
+     */
+    public static Map<UUID, Long> getUsages(UUID teamId) {
+        Map<UUID, Long> result = new HashMap<>();
+        Map<UUID, Usage> members = usage.get(teamId);
+        if (members != null) {
+            for (UUID playerId : members.keySet()) {
+                result.put(playerId, getUsage(teamId, playerId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Starts a new window when the wall clock crosses a window boundary. Called every server tick;
+     * between boundaries this is a single division.
+     */
+    public static void tick() {
+        long index = System.currentTimeMillis() / windowMillis();
+        if (index != windowIndex) {
+            rollover(index);
+        }
+    }
+
+    private static void rollover(long index) {
+        // Usage only carries over into the window directly after it
+        boolean adjacent = index == windowIndex + 1;
+        for (Map<UUID, Usage> members : usage.values()) {
+            members.values().removeIf(entry -> {
+                long current = entry.current.sumThenReset();
+                entry.previous = adjacent ? current : 0;
+                return entry.previous == 0;
+            });
+        }
+        usage.values().removeIf(Map::isEmpty);
+        windowIndex = index;
+        dirty = true;
+    }
+
+    private static long windowMillis() {
+        return BMTeamsConfig.QUOTA_WINDOW_MINUTES.get() * 60_000L;
+    }
+
+    /**
+     * Writes the table if it changed since the last save.
+     * @param async Write on the IO pool (periodic saves) instead of the calling thread (shutdown)
+     */
+    public static void save(MinecraftServer server, boolean async) {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        // Snapshot on the caller's thread so the writer never sees a half-rolled window
+        long snapshotWindow = windowIndex;
+        long snapshotMillis = windowMillis();
+        Map<UUID, Map<UUID, long[]>> snapshot = new HashMap<>();
+        usage.forEach((teamId, members) -> {
+            Map<UUID, long[]> copy = new HashMap<>();
+            members.forEach((playerId, entry) -> copy.put(playerId, new long[]{entry.current.sum(), entry.previous}));
+            snapshot.put(teamId, copy);
+        });
+
+        Path file = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(FILE);
+        long sequence = ++saveSequence;
+        Runnable write = () -> write(file, sequence, snapshotWindow, snapshotMillis, snapshot);
+        if (async) {
+            Util.ioPool().execute(write);
+        } else {
+            write.run();
+        }
+    }
+
+    private static synchronized void write(Path file, long sequence, long window, long millis,
+                                           Map<UUID, Map<UUID, long[]>> snapshot) {
+        if (sequence <= writtenSequence) {
+            return;
+        }
+        writtenSequence = sequence;
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(window);
+                out.writeLong(millis);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<UUID, Map<UUID, long[]>> team : snapshot.entrySet()) {
+                    out.writeLong(team.getKey().getMostSignificantBits());
+                    out.writeLong(team.getKey().getLeastSignificantBits());
+                    out.writeInt(team.getValue().size());
+                    for (Map.Entry<UUID, long[]> member : team.getValue().entrySet()) {
+                        out.writeLong(member.getKey().getMostSignificantBits());
+                        out.writeLong(member.getKey().getLeastSignificantBits());
+                        out.writeLong(member.getValue()[0]);
+                        out.writeLong(member.getValue()[1]);
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            BloodMagicTeams.LOGGER.error("Failed to save team drain quotas", e);
+        }
+    }
+
+    /**
+     * Loads the table saved by the last session. Usage from a window that has since ended
+     * is rolled over as if the server had been running.
+     */
+    public static void load(MinecraftServer server) {
+        clear();
+        Path file = server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            long window = in.readLong();
+            if (in.readLong() != windowMillis()) {
+                // Window length changed, old counts no longer line up
+                return;
+            }
+            int teams = in.readInt();
+            for (int i = 0; i < teams; i++) {
+                UUID teamId = new UUID(in.readLong(), in.readLong());
+                int members = in.readInt();
+                Map<UUID, Usage> table = new ConcurrentHashMap<>();
+                for (int j = 0; j < members; j++) {
+                    UUID playerId = new UUID(in.readLong(), in.readLong());
+                    Usage entry = new Usage();
+                    entry.current.add(in.readLong());
+                    entry.previous = in.readLong();
+                    table.put(playerId, entry);
+                }
+                usage.put(teamId, table);
+            }
+            windowIndex = window;
+            tick();
+        } catch (IOException e) {
+            BloodMagicTeams.LOGGER.error("Failed to load team drain quotas", e);
+            clear();
+        }
+    }
+
+    public static void clear() {
+        usage.clear();
+        windowIndex = -1;
+        dirty = false;
+    }
+}
@@ -0,0 +1,287 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Per-team log of soul network essence transactions.
+ * Each team keeps a fixed-size ring buffer of primitive arrays, so recording a transaction
+ * does not allocate once the team's buffer exists. Entries are periodically appended to a
+ * binary file per team on a background thread, and the file is compacted when it grows too large.
+ */
+public class NetworkTransactionLog {
+    // time (8) + player most/least (16) + source (1) + delta (4)
+    private static final int RECORD_SIZE = 29;
+    private static final String LOG_DIR = "bloodmagicteams/network_logs";
+    // How long the server waits at shutdown for the final writes
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private static final Map<UUID, TeamLog> logs = new ConcurrentHashMap<>();
+
+    @Nullable
+    private static ExecutorService ioExecutor;
+
+    // Set while a command mutates a network, so the Fill event it triggers is not logged twice
+    private static boolean suppressed = false;
+
+    /**
+     * What caused a transaction.
+     */
+    public enum Source {
+        COMMAND_SET,
+        COMMAND_ADD,
+        COMMAND_RESET,
+        SYPHON_ITEM,
+        SYPHON_USER,
+        FILL;
+
+        private static final Source[] VALUES = values();
+
+        static Source byId(int id) {
+            return id >= 0 && id < VALUES.length ? VALUES[id] : FILL;
+        }
+    }
+
+    /**
+     * A single transaction, only materialized for display.
+     * @param player The acting player, or null if unknown (e.g. an item syphon or altar fill)
+     */
+    public record Entry(long timestamp, @Nullable UUID player, Source source, int delta) {
+    }
+
+    /**
+     * Ring buffer for one team. Slots are addressed by sequence number modulo capacity.
+     */
+    private static final class TeamLog {
+        private final long[] timestamps;
+        private final long[] playerMost;
+        private final long[] playerLeast;
+        private final byte[] sources;
+        private final int[] deltas;
+        // Total entries ever recorded, and how many of those have been handed to the writer
+        private long recorded;
+        private long flushed;
+
+        TeamLog(int capacity) {
+            timestamps = new long[capacity];
+            playerMost = new long[capacity];
+            playerLeast = new long[capacity];
+            sources = new byte[capacity];
+            deltas = new int[capacity];
+        }
+
+        synchronized void add(long timestamp, long most, long least, Source source, int delta) {
+            int slot = (int) (recorded % timestamps.length);
+            timestamps[slot] = timestamp;
+            playerMost[slot] = most;
+            playerLeast[slot] = least;
+            sources[slot] = (byte) source.ordinal();
+            deltas[slot] = delta;
+            recorded++;
+        }
+
+        /**
+         * Serializes entries not yet written, or null if there are none.
+         * Entries that were overwritten before a flush are lost.
+         */
+        @Nullable
+        synchronized ByteBuffer drainUnflushed() {
+            long from = Math.max(flushed, recorded - timestamps.length);
+            if (from >= recorded) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (recorded - from) * RECORD_SIZE);
+            for (long seq = from; seq < recorded; seq++) {
+                int slot = (int) (seq % timestamps.length);
+                buffer.putLong(timestamps[slot]);
+                buffer.putLong(playerMost[slot]);
+                buffer.putLong(playerLeast[slot]);
+                buffer.put(sources[slot]);
+                buffer.putInt(deltas[slot]);
+            }
+            buffer.flip();
+            flushed = recorded;
+            return buffer;
+        }
+    }
+
+    /**
+     * Records a transaction on a team network. Allocation-free after the team's first transaction.
+     * @param teamId The team network's owner UUID
+     * @param player The acting player, or null if unknown
+     * @param source What caused the transaction
+     * @param delta Essence change (negative for drains)
+     */
+    public static void record(UUID teamId, @Nullable UUID player, Source source, int delta) {
+        if (suppressed) {
+            return;
+        }
+        TeamLog log = logs.get(teamId);
+        if (log == null) {
+            log = logs.computeIfAbsent(teamId, id -> new TeamLog(BMTeamsConfig.NETWORK_LOG_SIZE.get()));
+        }
+        long most = player != null ? player.getMostSignificantBits() : 0L;
+        long least = player != null ? player.getLeastSignificantBits() : 0L;
+        log.add(System.currentTimeMillis(), most, least, source, delta);
+    }
+
+    /**
+     * Suppresses event-driven recording while a caller that logs its own transaction changes a network.
+     * Server thread only.
+     */
+    public static void setSuppressed(boolean value) {
+        suppressed = value;
+    }
+
+    /**
+     * Hands all unwritten entries to the background writer. Called periodically from the server tick.
+     */
+    public static void flushAll(MinecraftServer server) {
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        Path dir = logDir(server);
+        int maxRecords = BMTeamsConfig.NETWORK_LOG_MAX_RECORDS.get();
+        for (Map.Entry<UUID, TeamLog> entry : logs.entrySet()) {
+            ByteBuffer pending = entry.getValue().drainUnflushed();
+            if (pending != null) {
+                Path file = dir.resolve(entry.getKey() + ".bin");
+                executor().execute(() -> append(file, pending, maxRecords));
+            }
+        }
+    }
+
+    /**
+     * Reads the most recent transactions for a team, newest first.
+     * Pending entries are flushed first; the read happens on the writer thread so it sees every write,
+     * and the callback receives the result there (callers should hop back to the server thread).
+     */
+    public static void readHistory(MinecraftServer server, UUID teamId, int limit, Consumer<List<Entry>> callback) {
+        flushAll(server);
+        Path file = logDir(server).resolve(teamId + ".bin");
+        executor().execute(() -> {
+            List<Entry> entries = new ArrayList<>();
+            try {
+                if (Files.exists(file)) {
+                    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                        long records = channel.size() / RECORD_SIZE;
+                        long first = Math.max(0, records - limit);
+                        ByteBuffer buffer = ByteBuffer.allocate((int) (records - first) * RECORD_SIZE);
+                        channel.read(buffer, first * RECORD_SIZE);
+                        buffer.flip();
+                        while (buffer.remaining() >= RECORD_SIZE) {
+                            long timestamp = buffer.getLong();
+                            long most = buffer.getLong();
+                            long least = buffer.getLong();
+                            Source source = Source.byId(buffer.get());
+                            int delta = buffer.getInt();
+                            UUID player = most == 0L && least == 0L ? null : new UUID(most, least);
+                            entries.add(0, new Entry(timestamp, player, source, delta));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                BloodMagicTeams.LOGGER.warn("Failed to read network log {}", file, e);
+            }
+            callback.accept(entries);
+        });
+    }
+
+    /**
+     * Waits for queued writes to finish, then drops in-memory logs. Call after a final flush when the
+     * server stops. The writer thread is a daemon, so without waiting the JVM could exit before the
+     * last entries reach disk. A later server (e.g. another singleplayer world) starts a new writer.
+     */
+    public static void clear() {
+        ExecutorService executor;
+        synchronized (NetworkTransactionLog.class) {
+            executor = ioExecutor;
+            ioExecutor = null;
+        }
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    BloodMagicTeams.LOGGER.warn("Timed out writing network logs; the latest transactions may be missing");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logs.clear();
+    }
+
+    private static Path logDir(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve("data").resolve(LOG_DIR);
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (ioExecutor == null) {
+            ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "BMTeams-NetworkLog");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return ioExecutor;
+    }
+
+    private static void append(Path file, ByteBuffer records, int maxRecords) {
+        try {
+            Files.createDirectories(file.getParent());
+            long size;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (records.hasRemaining()) {
+                    channel.write(records);
+                }
+                size = channel.size();
+            }
+            if (size / RECORD_SIZE > maxRecords) {
+                compact(file, maxRecords / 2);
+            }
+        } catch (IOException e) {
+            BloodMagicTeams.LOGGER.warn("Failed to write network log {}", file, e);
+        }
+    }
+
+    /**
+     * Rewrites a log file keeping only its newest records.
+     */
+    private static void compact(Path file, int keepRecords) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long records = in.size() / RECORD_SIZE;
+            long start = Math.max(0, records - keepRecords) * RECORD_SIZE;
+            long length = records * RECORD_SIZE - start;
+            long copied = 0;
+            while (copied < length) {
+                copied += in.transferTo(start + copied, length - copied, out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
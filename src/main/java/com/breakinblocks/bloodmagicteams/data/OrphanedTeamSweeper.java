@@ -0,0 +1,163 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig.OrphanDestination;
+import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingPreference;
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkStorage.RemovedNetwork;
+import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import wayoftime.bloodmagic.core.data.SoulTicket;
+import wayoftime.bloodmagic.util.helper.NetworkHelper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cleans up after deleted FTB teams: their stored soul networks and binding preferences that
+ * still target them.
+ * <p>
+ * Every {@link BMTeamsConfig#ORPHAN_SWEEP_INTERVAL} ticks a sweep queues every team with a stored
+ * network and every online player, then checks {@link BMTeamsConfig#ORPHAN_SWEEP_BUDGET} of them per
+ * tick, so large worlds are spread over many ticks. A deleted team's network is removed and its LP
+ * archived, split between its last known members, or discarded, as configured. Players who are
+ * offline during sweeps have their preference checked when they log in.
+ * <p>
+ * Only networks held by {@link TeamNetworkStorage} are swept; in BloodMagic's own file team and
+ * player networks cannot be told apart once the team is gone. Server thread only.
+ */
+public final class OrphanedTeamSweeper {
+
+    private static final ArrayDeque<UUID> pendingTeams = new ArrayDeque<>();
+    private static final ArrayDeque<UUID> pendingPlayers = new ArrayDeque<>();
+
+    private static int ticksSinceSweep = 0;
+    private static int removedThisSweep = 0;
+    private static int clearedThisSweep = 0;
+
+    private OrphanedTeamSweeper() {
+    }
+
+    /**
+     * Starts a sweep when one is due and checks this tick's share of teams and players.
+     */
+    public static void tick(MinecraftServer server) {
+        if (!BMTeamsConfig.ENABLE_ORPHAN_SWEEP.get()) {
+            return;
+        }
+        if (pendingTeams.isEmpty() && pendingPlayers.isEmpty()) {
+            if (++ticksSinceSweep < BMTeamsConfig.ORPHAN_SWEEP_INTERVAL.get()) {
+                return;
+            }
+            // Until FTB Teams has loaded, every team would look deleted
+            if (!TeamsIntegration.isTeamManagerLoaded()) {
+                return;
+            }
+            ticksSinceSweep = 0;
+            pendingTeams.addAll(TeamNetworkStorage.getTeamIds());
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                pendingPlayers.add(player.getUUID());
+            }
+        }
+
+        int budget = BMTeamsConfig.ORPHAN_SWEEP_BUDGET.get();
+        for (int i = 0; i < budget; i++) {
+            UUID teamId = pendingTeams.poll();
+            if (teamId != null) {
+                sweepTeam(teamId);
+                continue;
+            }
+            UUID playerId = pendingPlayers.poll();
+            if (playerId == null) {
+                break;
+            }
+            ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+            if (player != null && clearStaleTarget(player)) {
+                clearedThisSweep++;
+            }
+        }
+
+        if (pendingTeams.isEmpty() && pendingPlayers.isEmpty() && (removedThisSweep > 0 || clearedThisSweep > 0)) {
+            BloodMagicTeams.LOGGER.info("Removed {} networks of deleted teams and cleared {} binding targets",
+                    removedThisSweep, clearedThisSweep);
+            removedThisSweep = 0;
+            clearedThisSweep = 0;
+        }
+    }
+
+    /**
+     * Drops a player's preferred binding target if that team no longer exists.
+     * The preferred mode and "don't ask again" are kept; team binds go to the player's current team.
+     * @return true if the target was cleared
+     */
+    public static boolean clearStaleTarget(ServerPlayer player) {
+        BindingPreference pref = PlayerBindingData.getPreference(player);
+        if (pref == null || !pref.hasTargetTeam() || !TeamsIntegration.isTeamManagerLoaded()
+                || TeamsIntegration.isTeamUuid(pref.targetTeamId())) {
+            return false;
+        }
+        PlayerBindingData.setBindingMode(player, pref.mode(), pref.dontAsk(), null);
+        return true;
+    }
+
+    /**
+     * Drops sweep progress. Call when the server stops.
+     */
+    public static void clear() {
+        pendingTeams.clear();
+        pendingPlayers.clear();
+        ticksSinceSweep = 0;
+        removedThisSweep = 0;
+        clearedThisSweep = 0;
+    }
+
+    private static void sweepTeam(UUID teamId) {
+        Set<UUID> members = TeamsIntegration.getTeamMembers(teamId);
+        if (!members.isEmpty()) {
+            // Still exists; refresh its members in case it is deleted before anyone changes team again
+            TeamNetworkStorage.recordMembers(teamId, members);
+            return;
+        }
+        if (TeamsIntegration.isTeamUuid(teamId)) {
+            return;
+        }
+
+        RemovedNetwork removed = TeamNetworkStorage.remove(teamId);
+        if (removed == null) {
+            return;
+        }
+        TeamNetworkMetrics.remove(teamId);
+        removedThisSweep++;
+
+        OrphanDestination destination = BMTeamsConfig.ORPHANED_NETWORK_DESTINATION.get();
+        if (destination == OrphanDestination.MEMBERS && !removed.members().isEmpty()) {
+            splitBetweenMembers(removed);
+        } else if (destination != OrphanDestination.VOID) {
+            TeamNetworkStorage.archive(removed);
+            BloodMagicTeams.LOGGER.debug("Archived network of deleted team {} with {} LP", teamId, removed.essence());
+        } else {
+            BloodMagicTeams.LOGGER.debug("Discarded network of deleted team {} with {} LP", teamId, removed.essence());
+        }
+    }
+
+    private static void splitBetweenMembers(RemovedNetwork removed) {
+        List<UUID> members = new ArrayList<>(removed.members());
+        // Sorted so the remainder always goes to the same member
+        members.sort(null);
+        int share = removed.essence() / members.size();
+        int remainder = removed.essence() % members.size();
+        for (int i = 0; i < members.size(); i++) {
+            int amount = share + (i < remainder ? 1 : 0);
+            if (amount > 0) {
+                // Like the admin network commands, the member's orb tier does not cap the refund
+                NetworkHelper.getSoulNetwork(members.get(i)).add(new SoulTicket(amount), Integer.MAX_VALUE);
+            }
+        }
+        BloodMagicTeams.LOGGER.debug("Split {} LP of deleted team {} between {} members",
+                removed.essence(), removed.teamId(), members.size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import wayoftime.bloodmagic.common.item.IBindable;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Server-side table of binding prompts waiting for an answer from the client.
+ * Each request remembers which slot held the item and expires after
+ * {@link BMTeamsConfig#BINDING_PROMPT_TIMEOUT} ticks, so a screen closed with Escape
+ * or a player who logs out does not leave state behind.
+ * Only accessed from the server thread.
+ */
+public final class PendingBindings {
+
+    // Upper bound on outstanding prompts; the oldest is dropped when exceeded
+    private static final int MAX_PENDING = 1024;
+
+    // Request IDs stay below 2^21 so they fit in a 3 byte varint; 0 is never issued
+    private static final int REQUEST_ID_MASK = 0x1FFFFF;
+
+    /**
+     * Request ID of prompts sent without one, to clients that had not negotiated request IDs when
+     * the prompt was sent. Answers carrying it only match such prompts.
+     */
+    public static final int LEGACY_REQUEST_ID = 0;
+
+    /**
+     * A binding prompt sent to a player.
+     * @param requestId ID echoed back by the client's answer, or {@link #LEGACY_REQUEST_ID} if the prompt was sent without one
+     * @param hand The hand the item was used from
+     * @param slot The inventory slot that held the item when the prompt was sent
+     * @param item The item that was being bound
+     * @param createdTick Server tick the prompt was sent on
+     * @param deadlineTick Server tick after which the prompt is discarded
+     */
+    public record Request(int requestId, InteractionHand hand, int slot, Item item, long createdTick, long deadlineTick) {
+        public boolean isExpired(long tick) {
+            return tick > deadlineTick;
+        }
+
+        /**
+         * Gets the stack still waiting to be bound, or null if the slot no longer holds
+         * an unbound stack of the same item.
+         */
+        @Nullable
+        public ItemStack resolveStack(ServerPlayer player) {
+            ItemStack stack = player.getInventory().getItem(slot);
+            if (stack.isEmpty() || stack.getItem() != item
+                    || !(item instanceof IBindable bindable) || bindable.getBinding(stack) != null) {
+                return null;
+            }
+            return stack;
+        }
+
+        /**
+         * Checks if a stack is the one this prompt was opened for.
+         */
+        public boolean matches(ServerPlayer player, ItemStack stack) {
+            return resolveStack(player) == stack;
+        }
+    }
+
+    // Insertion order, so the oldest prompt is dropped first when full. The timeout can be reloaded,
+    // so deadlines are not in this order.
+    private static final Map<UUID, Request> requests = new LinkedHashMap<>();
+
+    // Earliest deadline of any request, so ticks with nothing to expire skip the sweep
+    private static long earliestDeadline = Long.MAX_VALUE;
+
+    private static int nextRequestId = 0;
+
+    private PendingBindings() {
+    }
+
+    /**
+     * Records a prompt for a player, replacing any earlier one.
+     * @param withRequestId Whether the prompt is sent with a request ID, i.e. the client has negotiated them
+     * @return The request ID to send with the prompt, {@link #LEGACY_REQUEST_ID} if sent without one
+     */
+    public static int open(ServerPlayer player, InteractionHand hand, ItemStack stack, boolean withRequestId) {
+        long tick = player.server.getTickCount();
+        int slot = hand == InteractionHand.MAIN_HAND
+                ? player.getInventory().selected
+                : Inventory.SLOT_OFFHAND;
+        int requestId = LEGACY_REQUEST_ID;
+        if (withRequestId) {
+            nextRequestId = (nextRequestId + 1) & REQUEST_ID_MASK;
+            if (nextRequestId == 0) {
+                nextRequestId = 1;
+            }
+            requestId = nextRequestId;
+        }
+        Request request = new Request(requestId, hand, slot, stack.getItem(), tick,
+                tick + BMTeamsConfig.BINDING_PROMPT_TIMEOUT.get());
+
+        // Remove first so a re-opened prompt moves to the tail
+        requests.remove(player.getUUID());
+        requests.put(player.getUUID(), request);
+        earliestDeadline = Math.min(earliestDeadline, request.deadlineTick());
+
+        if (requests.size() > MAX_PENDING) {
+            Iterator<UUID> oldest = requests.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        return request.requestId();
+    }
+
+    /**
+     * Removes and returns the player's live prompt with the given ID.
+     * Answers to replaced prompts and duplicate answers do not match and leave the current prompt in place.
+     * A prompt sent before the client negotiated request IDs still takes the legacy answer to it.
+     * @return The request, or null if there was no matching prompt or it has expired
+     */
+    @Nullable
+    public static Request take(ServerPlayer player, int requestId) {
+        Request request = requests.get(player.getUUID());
+        if (request == null || request.requestId() != requestId) {
+            return null;
+        }
+        requests.remove(player.getUUID());
+        return request.isExpired(player.server.getTickCount()) ? null : request;
+    }
+
+    /**
+     * Consumes a player's prompt if it was opened for this exact stack.
+     * Used when BloodMagic binds an item so unrelated binds are left alone.
+     */
+    public static boolean consumeFor(ServerPlayer player, ItemStack stack) {
+        Request request = requests.get(player.getUUID());
+        if (request == null || request.isExpired(player.server.getTickCount())
+                || !request.matches(player, stack)) {
+            return false;
+        }
+        requests.remove(player.getUUID());
+        return true;
+    }
+
+    public static void remove(UUID playerId) {
+        requests.remove(playerId);
+    }
+
+    /**
+     * Drops expired prompts. Called once per server tick.
+     */
+    public static void sweep(long tick) {
+        if (tick <= earliestDeadline) {
+            return;
+        }
+        long earliest = Long.MAX_VALUE;
+        Iterator<Request> iterator = requests.values().iterator();
+        while (iterator.hasNext()) {
+            Request request = iterator.next();
+            if (request.isExpired(tick)) {
+                iterator.remove();
+                BloodMagicTeams.LOGGER.debug("Binding prompt created on tick {} expired", request.createdTick());
+            } else {
+                earliest = Math.min(earliest, request.deadlineTick());
+            }
+        }
+        earliestDeadline = earliest;
+    }
+
+    public static void clear() {
+        requests.clear();
+        earliestDeadline = Long.MAX_VALUE;
+    }
+}
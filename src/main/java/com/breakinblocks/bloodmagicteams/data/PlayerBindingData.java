@@ -1,13 +1,17 @@
 package com.breakinblocks.bloodmagicteams.data;
 
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 
 import javax.annotation.Nullable;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages player binding mode preferences.
@@ -15,13 +19,26 @@ import java.util.UUID;
  * and whether to show the binding prompt.
  */
 public class PlayerBindingData {
-    private static final String NBT_KEY = "BMTeamsData";
-    private static final String BINDING_MODE_KEY = "BindingMode";
-    private static final String DONT_ASK_KEY = "DontAsk";
-    private static final String TARGET_TEAM_KEY = "TargetTeam";
+    // Packed preference: [flags] or [flags, targetMost, targetLeast]
+    private static final String NBT_KEY = "BMTeamsPref";
+
+    // Legacy compound format, migrated to NBT_KEY on first load
+    private static final String LEGACY_NBT_KEY = "BMTeamsData";
+    private static final String LEGACY_BINDING_MODE_KEY = "BindingMode";
+    private static final String LEGACY_DONT_ASK_KEY = "DontAsk";
+    private static final String LEGACY_TARGET_TEAM_KEY = "TargetTeam";
     
-    // Cache for player data
-    private static final Map<UUID, BindingPreference> playerPreferences = new HashMap<>();
+    // Upper bound on cached players; entries are normally evicted on logout
+    private static final int MAX_CACHED_PLAYERS = 1024;
+
+    // Cache for player data, including NO_PREFERENCE entries for players without saved data
+    private static final Map<UUID, BindingPreference> playerPreferences = new ConcurrentHashMap<>();
+
+    // Players whose cached preference has not been written to persistent data yet
+    private static final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+
+    // Negative cache marker, never handed out to callers
+    static final BindingPreference NO_PREFERENCE = BindingPreference.of(BindingMode.PERSONAL, false, null);
 
     /**
      * Binding mode options.
@@ -32,24 +49,82 @@ public class PlayerBindingData {
     }
 
     /**
-     * Stores a player's binding preferences.
+     * Read-only view of a player's binding preferences.
+     * Mode and dontAsk are packed into one flag byte and the target team is held as two longs,
+     * which is also the layout used for persistent data.
      */
-    public static class BindingPreference {
-        public BindingMode mode;
-        public boolean dontAsk;
+    public static final class BindingPreference {
+        private static final byte FLAG_TEAM = 1;
+        private static final byte FLAG_DONT_ASK = 1 << 1;
+        private static final byte FLAG_HAS_TARGET = 1 << 2;
+
+        private final byte flags;
+        private final long targetMost;
+        private final long targetLeast;
+
+        private BindingPreference(byte flags, long targetMost, long targetLeast) {
+            this.flags = flags;
+            this.targetMost = targetMost;
+            this.targetLeast = targetLeast;
+        }
+
+        public static BindingPreference of(BindingMode mode, boolean dontAsk, @Nullable UUID targetTeamId) {
+            byte flags = 0;
+            if (mode == BindingMode.TEAM) {
+                flags |= FLAG_TEAM;
+            }
+            if (dontAsk) {
+                flags |= FLAG_DONT_ASK;
+            }
+            if (targetTeamId == null) {
+                return new BindingPreference(flags, 0L, 0L);
+            }
+            flags |= FLAG_HAS_TARGET;
+            return new BindingPreference(flags, targetTeamId.getMostSignificantBits(),
+                    targetTeamId.getLeastSignificantBits());
+        }
+
+        public BindingMode mode() {
+            return (flags & FLAG_TEAM) != 0 ? BindingMode.TEAM : BindingMode.PERSONAL;
+        }
+
+        public boolean dontAsk() {
+            return (flags & FLAG_DONT_ASK) != 0;
+        }
+
+        public boolean hasTargetTeam() {
+            return (flags & FLAG_HAS_TARGET) != 0;
+        }
+
+        /**
+         * Specific team to bind to, or null to use the player's current team.
+         */
         @Nullable
-        public UUID targetTeamId; // Specific team to bind to (null = current team)
+        public UUID targetTeamId() {
+            return hasTargetTeam() ? new UUID(targetMost, targetLeast) : null;
+        }
+
+        public boolean isTargetTeam(UUID teamId) {
+            return hasTargetTeam()
+                    && teamId.getMostSignificantBits() == targetMost
+                    && teamId.getLeastSignificantBits() == targetLeast;
+        }
 
-        public BindingPreference() {
-            this.mode = BindingMode.PERSONAL;
-            this.dontAsk = false;
-            this.targetTeamId = null;
+        long[] encode() {
+            return hasTargetTeam()
+                    ? new long[]{flags, targetMost, targetLeast}
+                    : new long[]{flags};
         }
 
-        public BindingPreference(BindingMode mode, boolean dontAsk, @Nullable UUID targetTeamId) {
-            this.mode = mode;
-            this.dontAsk = dontAsk;
-            this.targetTeamId = targetTeamId;
+        @Nullable
+        static BindingPreference decode(long[] data) {
+            if (data.length == 1) {
+                return new BindingPreference((byte) (data[0] & ~FLAG_HAS_TARGET), 0L, 0L);
+            }
+            if (data.length == 3) {
+                return new BindingPreference((byte) (data[0] | FLAG_HAS_TARGET), data[1], data[2]);
+            }
+            return null;
         }
     }
 
@@ -64,9 +139,10 @@ public class PlayerBindingData {
      * Sets the binding mode preference for a player with a specific team target.
      */
     public static void setBindingMode(ServerPlayer player, BindingMode mode, boolean dontAsk, @Nullable UUID targetTeamId) {
-        BindingPreference pref = new BindingPreference(mode, dontAsk, targetTeamId);
-        playerPreferences.put(player.getUUID(), pref);
-        saveToNBT(player, pref);
+        BindingPreference pref = BindingPreference.of(mode, dontAsk, targetTeamId);
+        cache(player.getUUID(), pref);
+        // Written on the next flush, so repeated changes within a tick cost one NBT write
+        dirtyPlayers.add(player.getUUID());
     }
 
     /**
@@ -75,19 +151,26 @@ public class PlayerBindingData {
      */
     @Nullable
     public static BindingPreference getPreference(Player player) {
-        UUID playerId = player.getUUID();
+        return getPreference(player.getUUID(), player);
+    }
 
+    /**
+     * Cache lookup behind {@link #getPreference(Player)}, split out so it can be benchmarked without a player.
+     * @param player Used to load the preference on a cache miss; if null, a miss returns null
+     */
+    @Nullable
+    static BindingPreference getPreference(UUID playerId, @Nullable Player player) {
         // Check cache first
-        if (playerPreferences.containsKey(playerId)) {
-            return playerPreferences.get(playerId);
+        BindingPreference pref = playerPreferences.get(playerId);
+        if (pref == null) {
+            if (player == null) {
+                return null;
+            }
+            // Load from persistent data, remembering misses as well
+            pref = loadFromNBT(player);
+            cache(playerId, pref != null ? pref : NO_PREFERENCE);
         }
-
-        // Load from persistent data
-        BindingPreference pref = loadFromNBT(player);
-        if (pref != null) {
-            playerPreferences.put(playerId, pref);
-        }
-        return pref;
+        return pref == NO_PREFERENCE ? null : pref;
     }
 
     /**
@@ -96,7 +179,7 @@ public class PlayerBindingData {
      */
     public static boolean shouldShowPrompt(Player player) {
         BindingPreference pref = getPreference(player);
-        return pref == null || !pref.dontAsk;
+        return pref == null || !pref.dontAsk();
     }
 
     /**
@@ -106,20 +189,20 @@ public class PlayerBindingData {
     @Nullable
     public static BindingMode getBindingMode(Player player) {
         BindingPreference pref = getPreference(player);
-        return pref != null ? pref.mode : null;
+        return pref != null ? pref.mode() : null;
     }
 
     /**
      * Resets the player's binding preferences (clears "don't ask again").
      */
     public static void resetPreferences(ServerPlayer player) {
-        playerPreferences.remove(player.getUUID());
-        
+        cache(player.getUUID(), NO_PREFERENCE);
+        dirtyPlayers.remove(player.getUUID());
+
         // Clear from NBT
         CompoundTag persistentData = player.getPersistentData();
-        if (persistentData.contains(NBT_KEY)) {
-            persistentData.remove(NBT_KEY);
-        }
+        persistentData.remove(NBT_KEY);
+        persistentData.remove(LEGACY_NBT_KEY);
     }
 
     /**
@@ -127,37 +210,93 @@ public class PlayerBindingData {
      */
     public static void clearCache(UUID playerId) {
         playerPreferences.remove(playerId);
+        dirtyPlayers.remove(playerId);
+    }
+
+    /**
+     * Writes a player's pending preference change to their persistent data.
+     * Call before the player is saved or removed (e.g., on logout).
+     */
+    public static void flush(ServerPlayer player) {
+        UUID playerId = player.getUUID();
+        if (dirtyPlayers.remove(playerId)) {
+            BindingPreference pref = playerPreferences.get(playerId);
+            if (pref != null && pref != NO_PREFERENCE) {
+                saveToNBT(player, pref);
+            }
+        }
+    }
+
+    /**
+     * Writes all pending preference changes for online players.
+     * Called once per server tick so bursts of updates are coalesced into a single write.
+     */
+    public static void flushAll(MinecraftServer server) {
+        if (dirtyPlayers.isEmpty()) {
+            return;
+        }
+
+        Iterator<UUID> it = dirtyPlayers.iterator();
+        while (it.hasNext()) {
+            UUID playerId = it.next();
+            it.remove();
+            ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+            BindingPreference pref = playerPreferences.get(playerId);
+            if (player != null && pref != null && pref != NO_PREFERENCE) {
+                saveToNBT(player, pref);
+            }
+        }
+    }
+
+    static void cache(UUID playerId, BindingPreference pref) {
+        if (playerPreferences.size() >= MAX_CACHED_PLAYERS && !playerPreferences.containsKey(playerId)) {
+            // Safety valve for players that never log out, such as fake players: drop one clean entry,
+            // it is reloaded from NBT on demand. Dirty entries are flushed every tick, so one is found quickly.
+            Iterator<UUID> it = playerPreferences.keySet().iterator();
+            while (it.hasNext()) {
+                if (!dirtyPlayers.contains(it.next())) {
+                    it.remove();
+                    break;
+                }
+            }
+        }
+        playerPreferences.put(playerId, pref);
     }
 
     private static void saveToNBT(ServerPlayer player, BindingPreference pref) {
         CompoundTag persistentData = player.getPersistentData();
-        CompoundTag bmData = new CompoundTag();
-        
-        bmData.putString(BINDING_MODE_KEY, pref.mode.name());
-        bmData.putBoolean(DONT_ASK_KEY, pref.dontAsk);
-        if (pref.targetTeamId != null) {
-            bmData.putUUID(TARGET_TEAM_KEY, pref.targetTeamId);
-        }
-        
-        persistentData.put(NBT_KEY, bmData);
+        persistentData.putLongArray(NBT_KEY, pref.encode());
+        persistentData.remove(LEGACY_NBT_KEY);
     }
 
     @Nullable
     private static BindingPreference loadFromNBT(Player player) {
         CompoundTag persistentData = player.getPersistentData();
-        
-        if (!persistentData.contains(NBT_KEY)) {
+
+        if (persistentData.contains(NBT_KEY, Tag.TAG_LONG_ARRAY)) {
+            return BindingPreference.decode(persistentData.getLongArray(NBT_KEY));
+        }
+
+        if (!persistentData.contains(LEGACY_NBT_KEY)) {
             return null;
         }
-        
-        CompoundTag bmData = persistentData.getCompound(NBT_KEY);
-        
+
+        BindingPreference pref = loadLegacy(persistentData.getCompound(LEGACY_NBT_KEY));
+        if (pref != null) {
+            // Rewritten in the packed format on the next flush
+            dirtyPlayers.add(player.getUUID());
+        }
+        return pref;
+    }
+
+    @Nullable
+    private static BindingPreference loadLegacy(CompoundTag bmData) {
         try {
-            BindingMode mode = BindingMode.valueOf(bmData.getString(BINDING_MODE_KEY));
-            boolean dontAsk = bmData.getBoolean(DONT_ASK_KEY);
-            UUID targetTeam = bmData.contains(TARGET_TEAM_KEY) ? bmData.getUUID(TARGET_TEAM_KEY) : null;
-            
-            return new BindingPreference(mode, dontAsk, targetTeam);
+            BindingMode mode = BindingMode.valueOf(bmData.getString(LEGACY_BINDING_MODE_KEY));
+            boolean dontAsk = bmData.getBoolean(LEGACY_DONT_ASK_KEY);
+            UUID targetTeam = bmData.hasUUID(LEGACY_TARGET_TEAM_KEY) ? bmData.getUUID(LEGACY_TARGET_TEAM_KEY) : null;
+
+            return BindingPreference.of(mode, dontAsk, targetTeam);
         } catch (IllegalArgumentException e) {
             return null;
         }
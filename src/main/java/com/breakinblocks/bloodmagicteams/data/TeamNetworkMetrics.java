@@ -0,0 +1,284 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import wayoftime.bloodmagic.util.helper.NetworkHelper;
+
+import javax.annotation.Nullable;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage metrics for team soul networks.
+ * Events only bump {@link LongAdder} counters; essence, peaks and rates are derived
+ * when {@link #sample} runs on the configured tick interval.
+ */
+public class TeamNetworkMetrics {
+    private static final String MBEAN_NAME = "com.breakinblocks.bloodmagicteams:type=TeamNetworks";
+
+    private static final Map<UUID, TeamMetrics> teams = new ConcurrentHashMap<>();
+
+    // Player -> team resolution cache effectiveness, shared by all teams
+    private static final LongAdder cacheHits = new LongAdder();
+    private static final LongAdder cacheMisses = new LongAdder();
+
+    @Nullable
+    private static ObjectName registeredName;
+
+    /**
+     * Counters and last sample for one team network.
+     */
+    public static final class TeamMetrics {
+        private final LongAdder added = new LongAdder();
+        private final LongAdder drained = new LongAdder();
+        private final LongAdder bindings = new LongAdder();
+
+        private volatile int essence;
+        private volatile int peakEssence;
+        private volatile double addRate;
+        private volatile double drainRate;
+
+        private long lastAdded;
+        private long lastDrained;
+
+        public long getAdded() {
+            return added.sum();
+        }
+
+        public long getDrained() {
+            return drained.sum();
+        }
+
+        public long getBindings() {
+            return bindings.sum();
+        }
+
+        public int getEssence() {
+            return essence;
+        }
+
+        public int getPeakEssence() {
+            return peakEssence;
+        }
+
+        /**
+         * Essence added per second over the last sample window.
+         */
+        public double getAddRate() {
+            return addRate;
+        }
+
+        /**
+         * Essence drained per second over the last sample window.
+         */
+        public double getDrainRate() {
+            return drainRate;
+        }
+    }
+
+    private static TeamMetrics get(UUID teamId) {
+        TeamMetrics metrics = teams.get(teamId);
+        if (metrics == null) {
+            metrics = teams.computeIfAbsent(teamId, id -> new TeamMetrics());
+        }
+        return metrics;
+    }
+
+    public static void recordAdded(UUID teamId, int amount) {
+        get(teamId).added.add(amount);
+    }
+
+    public static void recordDrained(UUID teamId, int amount) {
+        get(teamId).drained.add(amount);
+    }
+
+    public static void recordBindings(UUID teamId, int count) {
+        get(teamId).bindings.add(count);
+    }
+
+    public static void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    public static void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    public static long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public static long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public static double getCacheHitRatio() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Gets metrics for a team, sampling its network first if it has not been tracked yet.
+     */
+    public static TeamMetrics getOrSample(UUID teamId) {
+        TeamMetrics metrics = teams.get(teamId);
+        if (metrics == null) {
+            metrics = get(teamId);
+            int essence = NetworkHelper.getSoulNetwork(teamId).getCurrentEssence();
+            metrics.essence = essence;
+            metrics.peakEssence = essence;
+        }
+        return metrics;
+    }
+
+    /**
+     * Refreshes essence, peaks and rates for every tracked team. Server thread only.
+     * @param intervalTicks Ticks since the previous sample
+     */
+    public static void sample(int intervalTicks) {
+        double seconds = intervalTicks / 20.0;
+        for (Map.Entry<UUID, TeamMetrics> entry : teams.entrySet()) {
+            TeamMetrics metrics = entry.getValue();
+            int essence = NetworkHelper.getSoulNetwork(entry.getKey()).getCurrentEssence();
+            metrics.essence = essence;
+            if (essence > metrics.peakEssence) {
+                metrics.peakEssence = essence;
+            }
+
+            long added = metrics.added.sum();
+            long drained = metrics.drained.sum();
+            metrics.addRate = (added - metrics.lastAdded) / seconds;
+            metrics.drainRate = (drained - metrics.lastDrained) / seconds;
+            metrics.lastAdded = added;
+            metrics.lastDrained = drained;
+        }
+    }
+
+    /**
+     * Stops tracking a team, e.g. once its network has been removed.
+     */
+    public static void remove(UUID teamId) {
+        teams.remove(teamId);
+    }
+
+    public static void clear() {
+        teams.clear();
+    }
+
+    /**
+     * Publishes the metrics as a platform MBean. Safe to call more than once.
+     */
+    public static synchronized void registerMBean() {
+        if (registeredName != null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MBean(), name);
+            }
+            registeredName = name;
+        } catch (Exception e) {
+            BloodMagicTeams.LOGGER.warn("Failed to register team network metrics MBean", e);
+        }
+    }
+
+    public static synchronized void unregisterMBean() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (Exception e) {
+            BloodMagicTeams.LOGGER.warn("Failed to unregister team network metrics MBean", e);
+        }
+        registeredName = null;
+    }
+
+    /**
+     * JMX view of the metrics. Per-team values are keyed by team UUID.
+     */
+    public interface TeamNetworksMXBean {
+        int getTrackedTeams();
+
+        double getCacheHitRatio();
+
+        long getCacheHits();
+
+        long getCacheMisses();
+
+        Map<String, Integer> getEssence();
+
+        Map<String, Integer> getPeakEssence();
+
+        Map<String, Double> getAddRates();
+
+        Map<String, Double> getDrainRates();
+
+        Map<String, Long> getBindings();
+    }
+
+    private static final class MBean implements TeamNetworksMXBean {
+        @Override
+        public int getTrackedTeams() {
+            return teams.size();
+        }
+
+        @Override
+        public double getCacheHitRatio() {
+            return TeamNetworkMetrics.getCacheHitRatio();
+        }
+
+        @Override
+        public long getCacheHits() {
+            return TeamNetworkMetrics.getCacheHits();
+        }
+
+        @Override
+        public long getCacheMisses() {
+            return TeamNetworkMetrics.getCacheMisses();
+        }
+
+        @Override
+        public Map<String, Integer> getEssence() {
+            Map<String, Integer> result = new HashMap<>();
+            teams.forEach((id, metrics) -> result.put(id.toString(), metrics.getEssence()));
+            return result;
+        }
+
+        @Override
+        public Map<String, Integer> getPeakEssence() {
+            Map<String, Integer> result = new HashMap<>();
+            teams.forEach((id, metrics) -> result.put(id.toString(), metrics.getPeakEssence()));
+            return result;
+        }
+
+        @Override
+        public Map<String, Double> getAddRates() {
+            Map<String, Double> result = new HashMap<>();
+            teams.forEach((id, metrics) -> result.put(id.toString(), metrics.getAddRate()));
+            return result;
+        }
+
+        @Override
+        public Map<String, Double> getDrainRates() {
+            Map<String, Double> result = new HashMap<>();
+            teams.forEach((id, metrics) -> result.put(id.toString(), metrics.getDrainRate()));
+            return result;
+        }
+
+        @Override
+        public Map<String, Long> getBindings() {
+            Map<String, Long> result = new HashMap<>();
+            teams.forEach((id, metrics) -> result.put(id.toString(), metrics.getBindings()));
+            return result;
+        }
+    }
+}
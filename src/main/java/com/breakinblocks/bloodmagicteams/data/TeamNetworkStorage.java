@@ -0,0 +1,530 @@
+package com.breakinblocks.bloodmagicteams.data;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.IntArrayTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraft.world.level.storage.DimensionDataStorage;
+import wayoftime.bloodmagic.core.data.SoulNetwork;
+import wayoftime.bloodmagic.util.helper.NetworkHelper;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores team soul networks in BMTeams' own saved data instead of BloodMagic's player network file.
+ * <p>
+ * BloodMagic keeps every soul network in one map that is written out in full whenever any network
+ * changes. Once installed, team networks are held here instead, split across {@link #SHARDS} saved
+ * data files by team. A shard is rewritten in full when any of its teams' networks changed since the
+ * last save, so an autosave only touches the shards of teams that were active. With many active
+ * teams most shards are still rewritten on each autosave.
+ * <p>
+ * BloodMagic still owns the {@link SoulNetwork} objects, so orbs, altars and rituals are unaffected:
+ * its network map is wrapped so that lookups see team networks, but saving only sees player networks.
+ * Team networks already in BloodMagic's file are moved over once FTB Teams has loaded its teams.
+ * If BloodMagic's map cannot be taken over, team networks are handed back to BloodMagic and a warning is logged.
+ * Networks of deleted teams are taken out again by {@link OrphanedTeamSweeper}.
+ * Only accessed from the server thread.
+ */
+public final class TeamNetworkStorage {
+    private static final int SHARDS = 32;
+    private static final String SHARD_PREFIX = BloodMagicTeams.MOD_ID + "_networks_";
+    private static final String ARCHIVE_NAME = BloodMagicTeams.MOD_ID + "_networks_archive";
+
+    // Looked up once to find BloodMagic's saved data, then removed again
+    private static final UUID PROBE_ID = new UUID(0L, 0L);
+
+    private static final Shard[] shards = new Shard[SHARDS];
+
+    @Nullable
+    private static SavedData bloodMagicData;
+    @Nullable
+    private static Field networkMapField;
+    // BloodMagic's original map, which now only holds player networks
+    @Nullable
+    private static Map<UUID, SoulNetwork> playerNetworks;
+    @Nullable
+    private static DimensionDataStorage dataStorage;
+    @Nullable
+    private static Archive archive;
+    private static boolean installed = false;
+    // Team networks still in BloodMagic's map, moved once FTB Teams can tell which IDs are teams
+    private static boolean migrationPending = false;
+
+    /**
+     * A team network taken out of storage by {@link #remove}.
+     * @param essence The LP the network held
+     * @param network The network's saved state
+     * @param members The team's members when they were last recorded, possibly empty
+     */
+    public record RemovedNetwork(UUID teamId, int essence, CompoundTag network, Set<UUID> members) {
+    }
+
+    /**
+     * One file's worth of team networks.
+     */
+    private static final class Shard extends SavedData {
+        // Last written NBT per team, also compared against live networks to detect changes
+        private final Map<UUID, CompoundTag> saved = new HashMap<>();
+        // Networks handed to BloodMagic this session
+        private final Map<UUID, SoulNetwork> live = new HashMap<>();
+        // Members each team had when last recorded, so LP can go back to them once the team is gone
+        private final Map<UUID, Set<UUID>> members = new HashMap<>();
+
+        private static Shard load(CompoundTag tag) {
+            Shard shard = new Shard();
+            ListTag networks = tag.getList("Networks", Tag.TAG_COMPOUND);
+            for (int i = 0; i < networks.size(); i++) {
+                CompoundTag entry = networks.getCompound(i);
+                UUID teamId = entry.getUUID("Team");
+                shard.saved.put(teamId, entry.getCompound("Network"));
+                if (entry.contains("Members", Tag.TAG_LIST)) {
+                    shard.members.put(teamId, readMembers(entry.getList("Members", Tag.TAG_INT_ARRAY)));
+                }
+            }
+            return shard;
+        }
+
+        @Override
+        public CompoundTag save(CompoundTag tag) {
+            live.forEach((teamId, network) -> saved.put(teamId, network.serializeNBT()));
+            ListTag networks = new ListTag();
+            saved.forEach((teamId, network) -> {
+                CompoundTag entry = new CompoundTag();
+                entry.putUUID("Team", teamId);
+                entry.put("Network", network);
+                Set<UUID> teamMembers = members.get(teamId);
+                if (teamMembers != null) {
+                    entry.put("Members", writeMembers(teamMembers));
+                }
+                networks.add(entry);
+            });
+            tag.put("Networks", networks);
+            return tag;
+        }
+
+        @Override
+        public boolean isDirty() {
+            if (super.isDirty()) {
+                return true;
+            }
+            // BloodMagic marks its own saved data dirty, not ours, so compare the whole network state
+            // (essence, orb tier and anything else it saves) with what was last written
+            for (Map.Entry<UUID, SoulNetwork> entry : live.entrySet()) {
+                if (!entry.getValue().serializeNBT().equals(saved.get(entry.getKey()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Takes over a network BloodMagic created, restoring its saved state if there is one.
+         */
+        private void adopt(UUID teamId, SoulNetwork network) {
+            CompoundTag tag = saved.get(teamId);
+            if (tag != null) {
+                network.deserializeNBT(tag);
+                // Normalized, so defaults filled in by deserializing do not count as a change
+                saved.put(teamId, network.serializeNBT());
+            } else {
+                setDirty();
+            }
+            live.put(teamId, network);
+        }
+
+        @Nullable
+        private SoulNetwork remove(UUID teamId) {
+            saved.remove(teamId);
+            members.remove(teamId);
+            setDirty();
+            return live.remove(teamId);
+        }
+
+        private boolean contains(UUID teamId) {
+            return live.containsKey(teamId) || saved.containsKey(teamId);
+        }
+    }
+
+    /**
+     * Networks of deleted teams, kept with {@link BMTeamsConfig.OrphanDestination#ARCHIVE}.
+     * Only loaded once something is archived.
+     */
+    private static final class Archive extends SavedData {
+        private final ListTag entries;
+
+        private Archive(ListTag entries) {
+            this.entries = entries;
+        }
+
+        private static Archive load(CompoundTag tag) {
+            return new Archive(tag.getList("Networks", Tag.TAG_COMPOUND));
+        }
+
+        @Override
+        public CompoundTag save(CompoundTag tag) {
+            tag.put("Networks", entries);
+            return tag;
+        }
+    }
+
+    /**
+     * BloodMagic's network map with team networks routed to the shards. Lookups and inserts see
+     * both; iteration, and so BloodMagic's save, only sees player networks.
+     */
+    private static final class SplitNetworkMap extends AbstractMap<UUID, SoulNetwork> {
+        private final Map<UUID, SoulNetwork> players;
+
+        private SplitNetworkMap(Map<UUID, SoulNetwork> players) {
+            this.players = players;
+        }
+
+        @Override
+        public SoulNetwork get(Object key) {
+            if (key instanceof UUID id) {
+                SoulNetwork network = shardFor(id).live.get(id);
+                if (network != null) {
+                    return network;
+                }
+            }
+            return players.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return (key instanceof UUID id && shardFor(id).live.containsKey(id)) || players.containsKey(key);
+        }
+
+        @Override
+        public SoulNetwork put(UUID key, SoulNetwork value) {
+            Shard shard = shardFor(key);
+            SoulNetwork previous = shard.live.get(key);
+            if (previous != null) {
+                shard.live.put(key, value);
+                shard.setDirty();
+                return previous;
+            }
+            if (shard.saved.containsKey(key) || TeamsIntegration.isTeamUuid(key)) {
+                shard.adopt(key, value);
+                return null;
+            }
+            return players.put(key, value);
+        }
+
+        @Override
+        public SoulNetwork remove(Object key) {
+            if (key instanceof UUID id) {
+                Shard shard = shardFor(id);
+                if (shard.contains(id)) {
+                    return shard.remove(id);
+                }
+            }
+            return players.remove(key);
+        }
+
+        @Override
+        public Set<Entry<UUID, SoulNetwork>> entrySet() {
+            return players.entrySet();
+        }
+    }
+
+    private TeamNetworkStorage() {
+    }
+
+    private static Shard shardFor(UUID teamId) {
+        return shards[Math.floorMod(teamId.hashCode(), SHARDS)];
+    }
+
+    /**
+     * Loads the shards and takes over team networks from BloodMagic. Called once the server has started.
+     * With {@link BMTeamsConfig#DEDICATED_TEAM_NETWORK_STORAGE} off, or if BloodMagic's map cannot be
+     * taken over, networks stored by an earlier session are handed back to BloodMagic instead.
+     */
+    public static void install(MinecraftServer server) {
+        DimensionDataStorage storage = server.overworld().getDataStorage();
+        dataStorage = storage;
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = storage.computeIfAbsent(Shard::load, Shard::new, SHARD_PREFIX + String.format("%02x", i));
+        }
+
+        if (!BMTeamsConfig.DEDICATED_TEAM_NETWORK_STORAGE.get()) {
+            restoreToBloodMagic();
+            return;
+        }
+
+        Map<UUID, SoulNetwork> networks = findNetworkMap();
+        if (networks == null) {
+            BloodMagicTeams.LOGGER.warn("Could not find BloodMagic's soul network map; team networks are kept in BloodMagic's saved data");
+            restoreToBloodMagic();
+            return;
+        }
+
+        // Swapped before anything is moved, so a failure leaves BloodMagic's map as it was
+        try {
+            networkMapField.set(bloodMagicData, new SplitNetworkMap(networks));
+        } catch (IllegalAccessException | RuntimeException e) {
+            BloodMagicTeams.LOGGER.warn("Could not install team network storage; team networks are kept in BloodMagic's saved data", e);
+            restoreToBloodMagic();
+            return;
+        }
+        playerNetworks = networks;
+        installed = true;
+        migrationPending = true;
+        tick();
+    }
+
+    /**
+     * Moves team networks out of BloodMagic's map once FTB Teams has loaded. Until then every team
+     * would look like a player, so new team networks stay with BloodMagic and are moved here later.
+     */
+    public static void tick() {
+        if (!migrationPending || !TeamsIntegration.isTeamManagerLoaded()) {
+            return;
+        }
+        migrationPending = false;
+
+        // Saved state wins over a network BloodMagic created before the swap, which can only be empty
+        int migrated = 0;
+        for (Iterator<Map.Entry<UUID, SoulNetwork>> iterator = playerNetworks.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<UUID, SoulNetwork> entry = iterator.next();
+            UUID id = entry.getKey();
+            Shard shard = shardFor(id);
+            if (shard.saved.containsKey(id) || TeamsIntegration.isTeamUuid(id)) {
+                shard.adopt(id, entry.getValue());
+                iterator.remove();
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            bloodMagicData.setDirty();
+        }
+        BloodMagicTeams.LOGGER.info("Moved {} team soul networks to BloodMagic Teams storage", migrated);
+    }
+
+    /**
+     * Drops references to the stopped server's data.
+     */
+    public static void clear() {
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = null;
+        }
+        bloodMagicData = null;
+        networkMapField = null;
+        playerNetworks = null;
+        dataStorage = null;
+        archive = null;
+        installed = false;
+        migrationPending = false;
+    }
+
+    /**
+     * Gets the IDs of every team with a stored network, loaded this session or not.
+     */
+    public static List<UUID> getTeamIds() {
+        List<UUID> teamIds = new ArrayList<>();
+        if (installed) {
+            for (Shard shard : shards) {
+                teamIds.addAll(shard.saved.keySet());
+                for (UUID teamId : shard.live.keySet()) {
+                    if (!shard.saved.containsKey(teamId)) {
+                        teamIds.add(teamId);
+                    }
+                }
+            }
+        }
+        return teamIds;
+    }
+
+    /**
+     * Remembers a team's members, for teams that have a stored network.
+     * Called when a player joins or leaves, including the last member leaving before the team is deleted.
+     */
+    public static void recordMembers(UUID teamId, Collection<UUID> members) {
+        if (!installed || members.isEmpty()) {
+            return;
+        }
+        Shard shard = shardFor(teamId);
+        if (shard.contains(teamId) && !members.equals(shard.members.get(teamId))) {
+            shard.members.put(teamId, new HashSet<>(members));
+            shard.setDirty();
+        }
+    }
+
+    /**
+     * Takes a team's network out of storage and empties it.
+     * @return The removed network, or null if the team has no stored network
+     */
+    @Nullable
+    public static RemovedNetwork remove(UUID teamId) {
+        if (!installed) {
+            return null;
+        }
+        Shard shard = shardFor(teamId);
+        if (!shard.contains(teamId)) {
+            return null;
+        }
+        // Looking the network up through BloodMagic restores it if it has not been loaded this session
+        SoulNetwork network = NetworkHelper.getSoulNetwork(teamId);
+        CompoundTag tag = network.serializeNBT();
+        int essence = network.getCurrentEssence();
+        // Emptied as well, in case something still holds on to the network object
+        network.clear();
+        Set<UUID> members = shard.members.getOrDefault(teamId, Set.of());
+        shard.remove(teamId);
+        return new RemovedNetwork(teamId, essence, tag, members);
+    }
+
+    /**
+     * Keeps a removed network in the archive file.
+     */
+    public static void archive(RemovedNetwork removed) {
+        if (dataStorage == null) {
+            return;
+        }
+        if (archive == null) {
+            archive = dataStorage.computeIfAbsent(Archive::load, () -> new Archive(new ListTag()), ARCHIVE_NAME);
+        }
+        CompoundTag entry = new CompoundTag();
+        entry.putUUID("Team", removed.teamId());
+        entry.put("Network", removed.network());
+        entry.put("Members", writeMembers(removed.members()));
+        entry.putLong("Archived", System.currentTimeMillis());
+        archive.entries.add(entry);
+        archive.setDirty();
+    }
+
+    private static ListTag writeMembers(Set<UUID> members) {
+        ListTag list = new ListTag();
+        for (UUID member : members) {
+            list.add(NbtUtils.createUUID(member));
+        }
+        return list;
+    }
+
+    private static Set<UUID> readMembers(ListTag list) {
+        Set<UUID> members = new HashSet<>();
+        for (Tag tag : list) {
+            if (tag instanceof IntArrayTag) {
+                members.add(NbtUtils.loadUUID(tag));
+            }
+        }
+        return members;
+    }
+
+    private static void restoreToBloodMagic() {
+        SavedData owner = null;
+        int restored = 0;
+        for (Shard shard : shards) {
+            for (Map.Entry<UUID, CompoundTag> entry : shard.saved.entrySet()) {
+                SoulNetwork network = NetworkHelper.getSoulNetwork(entry.getKey());
+                network.deserializeNBT(entry.getValue());
+                if (owner == null) {
+                    owner = findOwningData(entry.getKey(), network);
+                }
+                restored++;
+            }
+        }
+        if (restored == 0) {
+            return;
+        }
+        // Only let go of the stored copies once BloodMagic is known to write them
+        if (owner == null) {
+            BloodMagicTeams.LOGGER.warn("Could not find BloodMagic's soul network data; {} team soul networks stay in BloodMagic Teams storage", restored);
+            return;
+        }
+        owner.setDirty();
+        for (Shard shard : shards) {
+            if (!shard.saved.isEmpty()) {
+                shard.saved.clear();
+                shard.setDirty();
+            }
+        }
+        BloodMagicTeams.LOGGER.info("Moved {} team soul networks back to BloodMagic's saved data", restored);
+    }
+
+    /**
+     * Finds BloodMagic's network map through a network's reference to the saved data that owns it,
+     * so this does not depend on BloodMagic's internal names.
+     */
+    @Nullable
+    private static Map<UUID, SoulNetwork> findNetworkMap() {
+        NetworkMapLocation location = locateNetworkMap(PROBE_ID, NetworkHelper.getSoulNetwork(PROBE_ID));
+        if (location == null) {
+            return null;
+        }
+        bloodMagicData = location.data();
+        networkMapField = location.field();
+        // Only taken out once the map is known to be the one that holds it
+        location.networks().remove(PROBE_ID);
+        return location.networks();
+    }
+
+    /**
+     * Gets the BloodMagic saved data that holds a network.
+     */
+    @Nullable
+    private static SavedData findOwningData(UUID id, SoulNetwork network) {
+        NetworkMapLocation location = locateNetworkMap(id, network);
+        return location != null ? location.data() : null;
+    }
+
+    /**
+     * Where BloodMagic keeps its networks: the saved data, its map field, and the map itself.
+     */
+    private record NetworkMapLocation(SavedData data, Field field, Map<UUID, SoulNetwork> networks) {
+    }
+
+    /**
+     * Checks every saved data a network refers to and every map field on it, and only accepts the
+     * map that holds this very network under its ID. Anything else, such as a different map after a
+     * BloodMagic update, is never touched.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static NetworkMapLocation locateNetworkMap(UUID id, SoulNetwork network) {
+        try {
+            for (Field dataField : SoulNetwork.class.getDeclaredFields()) {
+                if (Modifier.isStatic(dataField.getModifiers()) || !SavedData.class.isAssignableFrom(dataField.getType())) {
+                    continue;
+                }
+                dataField.setAccessible(true);
+                SavedData data = (SavedData) dataField.get(network);
+                if (data == null) {
+                    continue;
+                }
+                for (Class<?> type = data.getClass(); type != SavedData.class; type = type.getSuperclass()) {
+                    for (Field mapField : type.getDeclaredFields()) {
+                        if (Modifier.isStatic(mapField.getModifiers()) || !Map.class.isAssignableFrom(mapField.getType())) {
+                            continue;
+                        }
+                        mapField.setAccessible(true);
+                        if (mapField.get(data) instanceof Map<?, ?> map && map.get(id) == network) {
+                            return new NetworkMapLocation(data, mapField, (Map<UUID, SoulNetwork>) map);
+                        }
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            BloodMagicTeams.LOGGER.warn("BloodMagic soul network map lookup failed", e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.breakinblocks.bloodmagicteams.events;
+
+import com.breakinblocks.bloodmagicteams.data.ClientTeamRegistry;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+/**
+ * Client-only events. Registered on the physical client only, as the event classes do not exist on a dedicated server.
+ */
+public class ClientEventHandler {
+
+    /**
+     * Forgets the last server's teams, so their names are not shown on the next server.
+     */
+    @SubscribeEvent
+    public void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        ClientTeamRegistry.clear();
+        TooltipEventHandler.invalidate();
+    }
+}
@@ -0,0 +1,164 @@
+package com.breakinblocks.bloodmagicteams.events;
+
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import com.breakinblocks.bloodmagicteams.data.MemberDrainQuotas;
+import com.breakinblocks.bloodmagicteams.data.NetworkTransactionLog;
+import com.breakinblocks.bloodmagicteams.data.NetworkTransactionLog.Source;
+import com.breakinblocks.bloodmagicteams.data.OrphanedTeamSweeper;
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkMetrics;
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkStorage;
+import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.player.Player;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import wayoftime.bloodmagic.core.data.SoulNetwork;
+import wayoftime.bloodmagic.event.SoulNetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * Observes BloodMagic soul network activity on team-owned networks for logging and metrics,
+ * and enforces per-member drain quotas.
+ */
+public class SoulNetworkEventHandler {
+
+    private int ticksSinceFlush = 0;
+    private int ticksSinceSample = 0;
+
+    /**
+     * Records drains from items (sigils, rituals) on team networks.
+     * Runs last and skips cancelled events, so only syphons that go ahead are logged.
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onItemSyphon(SoulNetworkEvent.Syphon.Item event) {
+        recordSyphon(event, null, Source.SYPHON_ITEM);
+    }
+
+    /**
+     * Cancels player drains that would take a member over their team's quota.
+     * Only player drains can be attributed to a member; item and ritual drains are not limited.
+     */
+    @SubscribeEvent(priority = EventPriority.HIGH)
+    public void onUserSyphonQuota(SoulNetworkEvent.Syphon.User event) {
+        if (!BMTeamsConfig.ENABLE_DRAIN_QUOTAS.get()) {
+            return;
+        }
+        UUID ownerId = event.getNetwork().getPlayerId();
+        if (ownerId == null) {
+            return;
+        }
+        // Cached per owner, so personal networks stop here after a single map lookup
+        int quota = TeamsIntegration.getMemberDrainQuota(ownerId);
+        if (quota <= 0) {
+            return;
+        }
+
+        Player user = event.getUser();
+        int amount = event.getTicket().getAmount();
+        if (MemberDrainQuotas.wouldExceed(ownerId, user.getUUID(), amount, quota)) {
+            event.setCanceled(true);
+            user.displayClientMessage(Component.translatable("bloodmagicteams.quota.exceeded",
+                    MemberDrainQuotas.getUsage(ownerId, user.getUUID()), quota).withStyle(ChatFormatting.RED), true);
+        }
+    }
+
+    /**
+     * Records drains charged directly to a player on team networks.
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onUserSyphon(SoulNetworkEvent.Syphon.User event) {
+        recordSyphon(event, event.getUser().getUUID(), Source.SYPHON_USER);
+    }
+
+    /**
+     * Records essence added to team networks (altars, orbs).
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onFill(SoulNetworkEvent.Fill event) {
+        SoulNetwork network = event.getNetwork();
+        UUID ownerId = network.getPlayerId();
+        if (ownerId == null || !TeamsIntegration.isTeamUuid(ownerId)) {
+            return;
+        }
+        // The network caps fills at the orb tier's maximum
+        int room = Math.max(0, event.getMaximum() - network.getCurrentEssence());
+        int added = Math.min(event.getTicket().getAmount(), room);
+        if (added > 0) {
+            NetworkTransactionLog.record(ownerId, null, Source.FILL, added);
+            TeamNetworkMetrics.recordAdded(ownerId, added);
+        }
+    }
+
+    private static void recordSyphon(SoulNetworkEvent.Syphon event, @Nullable UUID player, Source source) {
+        SoulNetwork network = event.getNetwork();
+        UUID ownerId = network.getPlayerId();
+        if (ownerId == null || !TeamsIntegration.isTeamUuid(ownerId)) {
+            return;
+        }
+
+        int amount = event.getTicket().getAmount();
+        // BloodMagic only drains when the network can cover the full amount
+        if (network.getCurrentEssence() >= amount) {
+            NetworkTransactionLog.record(ownerId, player, source, -amount);
+            TeamNetworkMetrics.recordDrained(ownerId, amount);
+            if (player != null) {
+                MemberDrainQuotas.recordDrain(ownerId, player, amount);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) {
+            return;
+        }
+        MemberDrainQuotas.tick();
+        if (++ticksSinceFlush >= BMTeamsConfig.NETWORK_LOG_FLUSH_INTERVAL.get()) {
+            ticksSinceFlush = 0;
+            NetworkTransactionLog.flushAll(event.getServer());
+            MemberDrainQuotas.save(event.getServer(), true);
+        }
+        int sampleInterval = BMTeamsConfig.METRICS_SAMPLE_INTERVAL.get();
+        if (++ticksSinceSample >= sampleInterval) {
+            ticksSinceSample = 0;
+            TeamNetworkMetrics.sample(sampleInterval);
+        }
+        TeamNetworkStorage.tick();
+        OrphanedTeamSweeper.tick(event.getServer());
+    }
+
+    @SubscribeEvent
+    public void onServerStarted(ServerStartedEvent event) {
+        TeamNetworkStorage.install(event.getServer());
+        MemberDrainQuotas.load(event.getServer());
+        if (BMTeamsConfig.ENABLE_JMX.get()) {
+            TeamNetworkMetrics.registerMBean();
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        NetworkTransactionLog.flushAll(event.getServer());
+        NetworkTransactionLog.clear();
+        MemberDrainQuotas.save(event.getServer(), false);
+        MemberDrainQuotas.clear();
+        TeamNetworkMetrics.unregisterMBean();
+        TeamNetworkMetrics.clear();
+        OrphanedTeamSweeper.clear();
+        ticksSinceFlush = 0;
+        ticksSinceSample = 0;
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        // Team networks were written with the world save while stopping
+        TeamNetworkStorage.clear();
+    }
+}
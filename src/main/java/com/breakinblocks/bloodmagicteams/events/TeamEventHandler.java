@@ -2,17 +2,32 @@ package com.breakinblocks.bloodmagicteams.events;
 
 import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
 import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import com.breakinblocks.bloodmagicteams.data.BoundItemScanner;
+import com.breakinblocks.bloodmagicteams.data.HandlerTimings;
+import com.breakinblocks.bloodmagicteams.data.OrphanedTeamSweeper;
+import com.breakinblocks.bloodmagicteams.data.PendingBindings;
 import com.breakinblocks.bloodmagicteams.data.PlayerBindingData;
 import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingMode;
 import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingPreference;
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkMetrics;
+import com.breakinblocks.bloodmagicteams.integration.BindingContext;
 import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
 import com.breakinblocks.bloodmagicteams.network.BMTeamsNetwork;
+import com.breakinblocks.bloodmagicteams.network.CapabilitiesPacket;
+import com.breakinblocks.bloodmagicteams.network.ConnectionCapabilities;
 import com.breakinblocks.bloodmagicteams.network.OpenBindingScreenPacket;
+import com.breakinblocks.bloodmagicteams.network.PacketRateLimiter;
+import com.breakinblocks.bloodmagicteams.network.TeamSyncBatcher;
+import com.breakinblocks.bloodmagicteams.team.ItemCategory;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionResult;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.network.PacketDistributor;
@@ -20,9 +35,6 @@ import wayoftime.bloodmagic.common.item.IBindable;
 import wayoftime.bloodmagic.core.data.Binding;
 import wayoftime.bloodmagic.util.helper.BindableHelper;
 
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -31,15 +43,21 @@ import java.util.UUID;
  */
 public class TeamEventHandler {
 
-    // Track items that we're waiting for UI response on
-    private static final Set<UUID> pendingBindingPlayers = new HashSet<>();
-
     /**
      * Intercepts binding attempts BEFORE BloodMagic processes them.
      * This runs at HIGHEST priority to check if we need to show the binding UI.
      */
     @SubscribeEvent(priority = EventPriority.HIGHEST)
     public void onPlayerRightClickPre(PlayerInteractEvent.RightClickItem event) {
+        long start = HandlerTimings.start();
+        try {
+            handleRightClickPre(event);
+        } finally {
+            HandlerTimings.record(HandlerTimings.Timer.RIGHT_CLICK, start);
+        }
+    }
+
+    private void handleRightClickPre(PlayerInteractEvent.RightClickItem event) {
         if (!BMTeamsConfig.ENABLE_TEAM_BINDING.get()) {
             return;
         }
@@ -64,13 +82,14 @@ public class TeamEventHandler {
             return; // Already bound, don't interfere
         }
 
-        // Check if player is on a team
-        if (!TeamsIntegration.isOnTeam(serverPlayer)) {
+        // Resolve team membership and binding permission in one pass
+        BindingContext context = TeamsIntegration.getBindingContext(serverPlayer);
+        if (!context.isOnTeam()) {
             return; // Not on team, let normal binding happen
         }
 
-        // Check if player can bind to their team (team property restriction)
-        if (!TeamsIntegration.canBindToTeam(serverPlayer)) {
+        // Check if player can bind this kind of item to their team (team restriction and binding rules)
+        if (!context.canBind(ItemCategory.of(held))) {
             // Player is on team but restricted from team binding, let personal binding happen
             return;
         }
@@ -78,13 +97,13 @@ public class TeamEventHandler {
         // Check player's binding preference
         BindingPreference pref = PlayerBindingData.getPreference(player);
 
-        if (pref != null && pref.dontAsk) {
+        if (pref != null && pref.dontAsk()) {
             // Player has a saved preference, apply it automatically
-            if (pref.mode == BindingMode.TEAM) {
+            if (pref.mode() == BindingMode.TEAM) {
                 // Cancel the event and apply team binding directly
                 event.setCanceled(true);
                 event.setCancellationResult(InteractionResult.SUCCESS);
-                applyTeamBinding(serverPlayer, held, pref);
+                applyTeamBinding(serverPlayer, held, pref, context);
                 BloodMagicTeams.LOGGER.debug("Auto-applied team binding for {} (saved preference)",
                         player.getName().getString());
             }
@@ -97,14 +116,15 @@ public class TeamEventHandler {
             event.setCanceled(true);
             event.setCancellationResult(InteractionResult.CONSUME);
 
-            // Mark as pending
-            pendingBindingPlayers.add(player.getUUID());
+            // Remember which slot the prompt is for until the player answers or it times out
+            int requestId = PendingBindings.open(serverPlayer, event.getHand(), held,
+                    ConnectionCapabilities.has(serverPlayer, ConnectionCapabilities.BINDING_REQUEST_IDS));
 
             // Send packet to open UI
-            Optional<String> teamName = TeamsIntegration.getTeamName(serverPlayer);
+            String teamName = context.teamName() != null ? context.teamName() : "Unknown Team";
             BMTeamsNetwork.CHANNEL.send(
                     PacketDistributor.PLAYER.with(() -> serverPlayer),
-                    new OpenBindingScreenPacket(teamName.orElse("Unknown Team"))
+                    new OpenBindingScreenPacket(teamName, requestId)
             );
             
             BloodMagicTeams.LOGGER.debug("Showing binding UI to {}", player.getName().getString());
@@ -117,6 +137,15 @@ public class TeamEventHandler {
      */
     @SubscribeEvent(priority = EventPriority.LOWEST)
     public void onItemBind(wayoftime.bloodmagic.event.ItemBindEvent event) {
+        long start = HandlerTimings.start();
+        try {
+            handleItemBind(event);
+        } finally {
+            HandlerTimings.record(HandlerTimings.Timer.ITEM_BIND, start);
+        }
+    }
+
+    private void handleItemBind(wayoftime.bloodmagic.event.ItemBindEvent event) {
         if (!BMTeamsConfig.ENABLE_TEAM_BINDING.get()) {
             return;
         }
@@ -130,31 +159,31 @@ public class TeamEventHandler {
             return;
         }
 
-        // Check if this player was pending team binding
-        if (!pendingBindingPlayers.remove(player.getUUID())) {
+        // Only take over binds of the exact item the player was prompted for
+        if (!PendingBindings.consumeFor(serverPlayer, event.getBindingStack())) {
             return;
         }
 
         // Get player's preference
         BindingPreference pref = PlayerBindingData.getPreference(player);
-        if (pref == null || pref.mode != BindingMode.TEAM) {
+        if (pref == null || pref.mode() != BindingMode.TEAM) {
             return;
         }
 
         // Apply team binding
-        Optional<UUID> teamId = pref.targetTeamId != null 
-                ? Optional.of(pref.targetTeamId) 
-                : TeamsIntegration.getTeamId(serverPlayer);
+        BindingContext context = TeamsIntegration.getBindingContext(serverPlayer);
+        UUID teamId = pref.hasTargetTeam() ? pref.targetTeamId() : context.teamId();
 
-        if (teamId.isPresent()) {
-            String teamName = TeamsIntegration.getTeamNameByUuid(teamId.get());
+        if (teamId != null) {
+            String teamName = context.nameFor(teamId);
             if (teamName == null) {
                 teamName = "Unknown Team";
             }
 
             ItemStack stack = event.getBindingStack();
-            Binding teamBinding = new Binding(teamId.get(), teamName);
+            Binding teamBinding = new Binding(teamId, teamName);
             BindableHelper.applyBinding(stack, teamBinding);
+            TeamNetworkMetrics.recordBindings(teamId, 1);
 
             BloodMagicTeams.LOGGER.debug("Applied team binding for {} to team {}", 
                     player.getName().getString(), teamName);
@@ -165,19 +194,18 @@ public class TeamEventHandler {
      * Applies team binding directly to an item.
      * Used when player has saved TEAM preference with dontAsk=true.
      */
-    private void applyTeamBinding(ServerPlayer player, ItemStack stack, BindingPreference pref) {
-        Optional<UUID> teamId = pref.targetTeamId != null
-                ? Optional.of(pref.targetTeamId)
-                : TeamsIntegration.getTeamId(player);
+    private void applyTeamBinding(ServerPlayer player, ItemStack stack, BindingPreference pref, BindingContext context) {
+        UUID teamId = pref.hasTargetTeam() ? pref.targetTeamId() : context.teamId();
 
-        if (teamId.isPresent()) {
-            String teamName = TeamsIntegration.getTeamNameByUuid(teamId.get());
+        if (teamId != null) {
+            String teamName = context.nameFor(teamId);
             if (teamName == null) {
                 teamName = "Unknown Team";
             }
 
-            Binding teamBinding = new Binding(teamId.get(), teamName);
+            Binding teamBinding = new Binding(teamId, teamName);
             BindableHelper.applyBinding(stack, teamBinding);
+            TeamNetworkMetrics.recordBindings(teamId, 1);
 
             BloodMagicTeams.LOGGER.debug("Applied team binding for {} to team {}",
                     player.getName().getString(), teamName);
@@ -188,16 +216,82 @@ public class TeamEventHandler {
     }
 
     /**
-     * Clears pending state for a player (called when they make a choice or disconnect).
+     * Starts the capability handshake with a joining client. The team registry is sent
+     * once the client answers, so tooltips can resolve team names client-side. Also drops a
+     * preferred binding target whose team was deleted. Fake players are skipped.
+     */
+    @SubscribeEvent
+    public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        long start = HandlerTimings.start();
+        try {
+            if (event.getEntity() instanceof ServerPlayer serverPlayer && !(serverPlayer instanceof FakePlayer)) {
+                // Sweeps only see online players, so targets of teams deleted while away are dropped here
+                OrphanedTeamSweeper.clearStaleTarget(serverPlayer);
+                // Older clients drop this and are left with the original payloads
+                BMTeamsNetwork.CHANNEL.send(
+                        PacketDistributor.PLAYER.with(() -> serverPlayer),
+                        new CapabilitiesPacket(ConnectionCapabilities.SUPPORTED)
+                );
+            }
+        } finally {
+            HandlerTimings.record(HandlerTimings.Timer.PLAYER_LOGGED_IN, start);
+        }
+    }
+
+    /**
+     * Drops per-player cached state when a player leaves the server.
      */
-    public static void clearPending(UUID playerId) {
-        pendingBindingPlayers.remove(playerId);
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        long start = HandlerTimings.start();
+        try {
+            UUID playerId = event.getEntity().getUUID();
+            if (event.getEntity() instanceof ServerPlayer serverPlayer) {
+                // Runs before the player file is written, so pending preferences are saved with it
+                PlayerBindingData.flush(serverPlayer);
+            }
+            PlayerBindingData.clearCache(playerId);
+            PendingBindings.remove(playerId);
+            PacketRateLimiter.remove(playerId);
+            ConnectionCapabilities.remove(playerId);
+            TeamsIntegration.invalidatePlayer(playerId);
+        } finally {
+            HandlerTimings.record(HandlerTimings.Timer.PLAYER_LOGGED_OUT, start);
+        }
     }
 
     /**
-     * Checks if a player has a pending binding choice.
+     * Writes coalesced preference changes and expires unanswered binding prompts once per tick.
      */
-    public static boolean isPending(UUID playerId) {
-        return pendingBindingPlayers.contains(playerId);
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        long start = HandlerTimings.start();
+        try {
+            if (event.phase == TickEvent.Phase.END) {
+                PlayerBindingData.flushAll(event.getServer());
+                PendingBindings.sweep(event.getServer().getTickCount());
+                TeamSyncBatcher.flush(event.getServer());
+            }
+        } finally {
+            HandlerTimings.record(HandlerTimings.Timer.SERVER_TICK, start);
+        }
+    }
+
+    /**
+     * Drops all cached team state so a new world (or integrated server) starts fresh.
+     */
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        long start = HandlerTimings.start();
+        try {
+            PendingBindings.clear();
+            PacketRateLimiter.clear();
+            ConnectionCapabilities.clear();
+            TeamSyncBatcher.clear();
+            TeamsIntegration.clearCaches();
+            BoundItemScanner.clear();
+        } finally {
+            HandlerTimings.record(HandlerTimings.Timer.SERVER_STOPPED, start);
+        }
     }
 }
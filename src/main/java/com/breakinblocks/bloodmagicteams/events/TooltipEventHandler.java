@@ -1,5 +1,7 @@
 package com.breakinblocks.bloodmagicteams.events;
 
+import com.breakinblocks.bloodmagicteams.data.ClientTeamRegistry;
+import com.breakinblocks.bloodmagicteams.data.HandlerTimings;
 import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
@@ -10,16 +12,59 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import wayoftime.bloodmagic.common.item.IBindable;
 import wayoftime.bloodmagic.core.data.Binding;
 
+import javax.annotation.Nullable;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles tooltip modifications to show current team names for team-bound items.
  */
 public class TooltipEventHandler {
 
+    // Each cache is emptied once it holds this many owners
+    private static final int MAX_CACHED_OWNERS = 1024;
+
+    // Cache of owner UUID to resolved team name, reset by bumping the version
+    private static final Map<UUID, ResolvedOwner> resolvedOwners = new ConcurrentHashMap<>();
+
+    // Cache of owner UUID to the last rewritten owner line, valid while its ResolvedOwner is current
+    private static final Map<UUID, LineRewrite> lineRewrites = new ConcurrentHashMap<>();
+
+    private static volatile int version = 0;
+
+    @Nullable
+    private static String indicatorText;
+    private static int indicatorVersion = -1;
+
+    private record ResolvedOwner(int version, boolean isTeam, @Nullable String teamName) {
+    }
+
+    private record LineRewrite(ResolvedOwner owner, String storedName, String sourceLine, Component replacement) {
+    }
+
+    /**
+     * Drops all cached team names and tooltip lines. Called whenever the client team registry changes
+     * and when leaving a server.
+     */
+    public static void invalidate() {
+        version++;
+        resolvedOwners.clear();
+        lineRewrites.clear();
+    }
+
     @SubscribeEvent
     public void onItemTooltip(ItemTooltipEvent event) {
+        long start = HandlerTimings.start();
+        try {
+            handleItemTooltip(event);
+        } finally {
+            HandlerTimings.record(HandlerTimings.Timer.ITEM_TOOLTIP, start);
+        }
+    }
+
+    private void handleItemTooltip(ItemTooltipEvent event) {
         ItemStack stack = event.getItemStack();
 
         if (stack.isEmpty() || !(stack.getItem() instanceof IBindable bindable)) {
@@ -37,19 +82,26 @@ public class TooltipEventHandler {
         }
 
         // Check if this is a team-bound item
-        if (!TeamsIntegration.isTeamUuid(ownerUuid)) {
+        ResolvedOwner owner = resolveOwner(ownerUuid);
+        if (!owner.isTeam()) {
             return;
         }
 
-        // Get the current team name
-        String currentTeamName = TeamsIntegration.getTeamNameByUuid(ownerUuid);
-        if (currentTeamName == null) {
-            currentTeamName = Component.translatable("bloodmagicteams.tooltip.unknown_team").getString();
+        String storedName = binding.getOwnerName();
+        if (storedName == null) {
+            return;
         }
 
         // Find and replace the owner line in the tooltip
         List<Component> tooltip = event.getToolTip();
-        String storedName = binding.getOwnerName();
+        LineRewrite rewrite = lineRewrites.get(ownerUuid);
+        if (rewrite != null && (rewrite.owner() != owner || !rewrite.storedName().equals(storedName))) {
+            rewrite = null;
+        }
+
+        String indicator = getIndicatorText();
+        int ownerLine = -1;
+        boolean hasTeamIndicator = false;
 
         for (int i = 0; i < tooltip.size(); i++) {
             Component line = tooltip.get(i);
@@ -57,32 +109,71 @@ public class TooltipEventHandler {
 
             // BloodMagic shows "Current owner: <name>" or similar
             // We need to find the line with the stored name and replace it with the current team name
-            if (storedName != null && lineString.contains(storedName)) {
-                // Replace with dynamic team name and add team indicator
-                String newLineString = lineString.replace(storedName, currentTeamName);
-                MutableComponent newLine = Component.literal(newLineString)
-                        .withStyle(line.getStyle());
-                tooltip.set(i, newLine);
-
-                // Add a team indicator line if not already present
-                boolean hasTeamIndicator = false;
-                for (Component c : tooltip) {
-                    if (c.getString().contains("[") && c.getString().contains("]")) {
-                        // Check for our team indicator
-                        String indicatorText = Component.translatable("bloodmagicteams.tooltip.team_bound").getString();
-                        if (c.getString().contains(indicatorText) || c.getString().contains("Team")) {
-                            hasTeamIndicator = true;
-                            break;
-                        }
-                    }
+            if (ownerLine < 0 && lineString.contains(storedName)) {
+                if (rewrite == null || !rewrite.sourceLine().equals(lineString)) {
+                    rewrite = createRewrite(owner, storedName, line, lineString);
+                    putBounded(lineRewrites, ownerUuid, rewrite);
                 }
-
-                if (!hasTeamIndicator) {
-                    tooltip.add(i + 1, Component.translatable("bloodmagicteams.tooltip.team_bound")
-                            .withStyle(ChatFormatting.DARK_PURPLE));
-                }
-                break;
+                tooltip.set(i, rewrite.replacement());
+                ownerLine = i;
+            } else if (lineString.contains("[") && lineString.contains("]")
+                    && (lineString.contains(indicator) || lineString.contains("Team"))) {
+                // Check for our team indicator
+                hasTeamIndicator = true;
             }
         }
+
+        // Add a team indicator line if not already present
+        if (ownerLine >= 0 && !hasTeamIndicator) {
+            tooltip.add(ownerLine + 1, Component.translatable("bloodmagicteams.tooltip.team_bound")
+                    .withStyle(ChatFormatting.DARK_PURPLE));
+        }
+    }
+
+    private static ResolvedOwner resolveOwner(UUID ownerUuid) {
+        int currentVersion = version;
+        ResolvedOwner owner = resolvedOwners.get(ownerUuid);
+        if (owner != null && owner.version() == currentVersion) {
+            return owner;
+        }
+
+        ClientTeamRegistry.TeamEntry team = ClientTeamRegistry.get(ownerUuid);
+        if (team != null) {
+            owner = new ResolvedOwner(currentVersion, true, team.name());
+        } else {
+            // Not synced, e.g. a server without team sync; in singleplayer FTB Teams can still be asked directly
+            boolean isTeam = TeamsIntegration.isTeamUuid(ownerUuid);
+            owner = new ResolvedOwner(currentVersion, isTeam, isTeam ? TeamsIntegration.getTeamNameByUuid(ownerUuid) : null);
+        }
+        putBounded(resolvedOwners, ownerUuid, owner);
+        return owner;
+    }
+
+    private static <V> void putBounded(Map<UUID, V> cache, UUID ownerUuid, V value) {
+        if (cache.size() >= MAX_CACHED_OWNERS && !cache.containsKey(ownerUuid)) {
+            cache.clear();
+        }
+        cache.put(ownerUuid, value);
+    }
+
+    private static LineRewrite createRewrite(ResolvedOwner owner, String storedName, Component line, String lineString) {
+        String currentTeamName = owner.teamName();
+        if (currentTeamName == null) {
+            currentTeamName = Component.translatable("bloodmagicteams.tooltip.unknown_team").getString();
+        }
+
+        // Replace with dynamic team name
+        String newLineString = lineString.replace(storedName, currentTeamName);
+        MutableComponent newLine = Component.literal(newLineString)
+                .withStyle(line.getStyle());
+        return new LineRewrite(owner, storedName, lineString, newLine);
+    }
+
+    private static String getIndicatorText() {
+        if (indicatorText == null || indicatorVersion != version) {
+            indicatorText = Component.translatable("bloodmagicteams.tooltip.team_bound").getString();
+            indicatorVersion = version;
+        }
+        return indicatorText;
     }
 }
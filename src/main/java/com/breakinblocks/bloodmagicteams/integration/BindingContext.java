@@ -0,0 +1,57 @@
+package com.breakinblocks.bloodmagicteams.integration;
+
+import com.breakinblocks.bloodmagicteams.team.BindingRestriction;
+import com.breakinblocks.bloodmagicteams.team.ItemCategory;
+import dev.ftb.mods.ftbteams.api.TeamRank;
+
+import javax.annotation.Nullable;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of everything needed to decide a team binding for one player,
+ * resolved in a single pass by {@link TeamsIntegration#getBindingContext}.
+ * @param teamId The player's party team, or null if not on a team
+ * @param teamName The team's display name, or null if not on a team
+ * @param rank The player's rank in the team, or null if not on a team
+ * @param restriction The team's binding restriction
+ * @param bindableCategories Bitmask of the {@link ItemCategory item categories} the player may bind to the team
+ */
+public record BindingContext(@Nullable UUID teamId, @Nullable String teamName, @Nullable TeamRank rank,
+                             BindingRestriction restriction, int bindableCategories) {
+
+    /**
+     * Context for a player who is not on a party team.
+     */
+    public static final BindingContext NONE = new BindingContext(null, null, null, BindingRestriction.MEMBER, 0);
+
+    public boolean isOnTeam() {
+        return teamId != null;
+    }
+
+    /**
+     * Checks if the player may bind at least one kind of item to the team.
+     */
+    public boolean canBind() {
+        return bindableCategories != 0;
+    }
+
+    /**
+     * Checks if the player may bind items of a category to the team.
+     */
+    public boolean canBind(ItemCategory category) {
+        return (bindableCategories & category.bit()) != 0;
+    }
+
+    /**
+     * Gets the display name for a target team, reusing this context's name when it is the player's own team.
+     * @param targetTeamId The team being bound to
+     * @return The team name, or null if not found
+     */
+    @Nullable
+    public String nameFor(UUID targetTeamId) {
+        if (targetTeamId.equals(teamId)) {
+            return teamName;
+        }
+        return TeamsIntegration.getTeamNameByUuid(targetTeamId);
+    }
+}
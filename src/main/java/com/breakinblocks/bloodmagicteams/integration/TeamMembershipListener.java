@@ -0,0 +1,35 @@
+package com.breakinblocks.bloodmagicteams.integration;
+
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkStorage;
+import dev.ftb.mods.ftbteams.api.Team;
+import dev.ftb.mods.ftbteams.api.event.TeamEvent;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the members recorded with each stored team network up to date, so that once a team is
+ * deleted its LP can be handed back to the players who were in it.
+ * This class should ONLY be loaded when FTB Teams is present.
+ */
+final class TeamMembershipListener {
+
+    private TeamMembershipListener() {
+    }
+
+    static void register() {
+        TeamEvent.PLAYER_CHANGED.register(event -> {
+            Team team = event.getTeam();
+            if (!team.isPlayerTeam()) {
+                TeamNetworkStorage.recordMembers(team.getId(), team.getMembers());
+            }
+            event.getPreviousTeam().filter(previous -> !previous.isPlayerTeam()).ifPresent(previous -> {
+                // The leaving player still counts, so the last member of a disbanded party is kept
+                Set<UUID> members = new HashSet<>(previous.getMembers());
+                members.add(event.getPlayerId());
+                TeamNetworkStorage.recordMembers(previous.getId(), members);
+            });
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package com.breakinblocks.bloodmagicteams.integration;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.mojang.brigadier.StringReader;
+import dev.ftb.mods.ftbteams.api.FTBTeamsAPI;
+import dev.ftb.mods.ftbteams.api.Team;
+import dev.ftb.mods.ftbteams.api.event.TeamEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Case-insensitive name index and sorted suggestion table for party/server teams.
+ * The index is an immutable snapshot that is rebuilt lazily after FTB Teams reports a
+ * team being created, renamed or deleted, so lookups never scan the team manager.
+ * This class should ONLY be loaded when FTB Teams is present.
+ */
+final class TeamNameIndex {
+
+    /**
+     * @param byName Lower-cased team name to team UUID
+     * @param keys Lower-cased suggestion strings, sorted for binary search
+     * @param values Suggestion strings in display case, parallel to keys
+     */
+    private record Snapshot(Map<String, UUID> byName, String[] keys, String[] values) {
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(Map.of(), new String[0], new String[0]);
+
+    @Nullable
+    private static volatile Snapshot snapshot;
+
+    private TeamNameIndex() {
+    }
+
+    /**
+     * Finds a team by name, ignoring case.
+     */
+    @Nullable
+    static UUID findByName(String name) {
+        return get().byName().get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Feeds every team name and UUID starting with a prefix (ignoring case) to a consumer, in sorted order.
+     * Names that cannot be typed as a single word are only suggested by UUID.
+     */
+    static void forEachWithPrefix(String prefix, Consumer<String> consumer) {
+        Snapshot current = get();
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int index = Arrays.binarySearch(current.keys(), key);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        while (index < current.keys().length && current.keys()[index].startsWith(key)) {
+            consumer.accept(current.values()[index]);
+            index++;
+        }
+    }
+
+    static void invalidate() {
+        snapshot = null;
+    }
+
+    private static Snapshot get() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = build();
+            if (current != EMPTY) {
+                snapshot = current;
+            }
+        }
+        return current;
+    }
+
+    private static Snapshot build() {
+        if (!FTBTeamsAPI.api().isManagerLoaded()) {
+            return EMPTY;
+        }
+
+        Map<String, UUID> byName = new HashMap<>();
+        List<String[]> entries = new ArrayList<>();
+        for (Team team : FTBTeamsAPI.api().getManager().getTeams()) {
+            if (team.isPlayerTeam()) {
+                continue;
+            }
+            String name = team.getName().getString();
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            byName.putIfAbsent(lowerName, team.getId());
+            if (isWord(name)) {
+                entries.add(new String[]{lowerName, name});
+            }
+            String id = team.getId().toString();
+            entries.add(new String[]{id, id});
+        }
+
+        entries.sort((a, b) -> a[0].compareTo(b[0]));
+        String[] keys = new String[entries.size()];
+        String[] values = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i)[0];
+            values[i] = entries.get(i)[1];
+        }
+        return new Snapshot(byName, keys, values);
+    }
+
+    private static boolean isWord(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!StringReader.isAllowedInUnquotedString(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void register() {
+        TeamEvent.CREATED.register(event -> invalidate());
+        TeamEvent.DELETED.register(event -> invalidate());
+        TeamEvent.PROPERTIES_CHANGED.register(event -> invalidate());
+        BloodMagicTeams.LOGGER.debug("Registered team name index listeners");
+    }
+}
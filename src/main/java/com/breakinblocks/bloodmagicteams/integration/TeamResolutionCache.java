@@ -0,0 +1,136 @@
+package com.breakinblocks.bloodmagicteams.integration;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkMetrics;
+import com.breakinblocks.bloodmagicteams.team.BMTeamsProperties;
+import com.breakinblocks.bloodmagicteams.team.BindingPolicy;
+import com.breakinblocks.bloodmagicteams.team.BindingRestriction;
+import dev.ftb.mods.ftbteams.api.FTBTeamsAPI;
+import dev.ftb.mods.ftbteams.api.Team;
+import dev.ftb.mods.ftbteams.api.TeamRank;
+import dev.ftb.mods.ftbteams.api.event.TeamEvent;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-side cache of player to party team resolution.
+ * Entries are filled lazily on first lookup and dropped when FTB Teams reports
+ * a change that could affect them (membership, properties, deletion).
+ * This class should ONLY be loaded when FTB Teams is present.
+ */
+final class TeamResolutionCache {
+
+    private static final int RANK_COUNT = TeamRank.values().length;
+
+    /**
+     * Resolved party team for a player. {@link #NONE} marks a player with no party team.
+     * Binding contexts are built once per rank and reused, so a cache hit allocates nothing
+     * unless the team has rules for specific players.
+     */
+    record Entry(@Nullable Team team, @Nullable UUID teamId, @Nullable String teamName,
+                 BindingRestriction restriction, BindingPolicy policy, BindingContext[] contextsByRank) {
+        boolean isPresent() {
+            return team != null;
+        }
+
+        BindingContext contextFor(UUID playerId) {
+            if (team == null) {
+                return BindingContext.NONE;
+            }
+            TeamRank rank = rankFor(playerId);
+            if (policy.hasPlayerRules()) {
+                // Allow and deny rules make the context specific to the player, not just the rank
+                return new BindingContext(teamId, teamName, rank, restriction,
+                        policy.bindableCategories(playerId, rank));
+            }
+            BindingContext context = contextsByRank[rank.ordinal()];
+            if (context == null) {
+                // Contexts are immutable, so a racing rebuild is harmless
+                context = new BindingContext(teamId, teamName, rank, restriction,
+                        policy.bindableCategories(playerId, rank));
+                contextsByRank[rank.ordinal()] = context;
+            }
+            return context;
+        }
+
+        /**
+         * FTB Teams does not publish an event for promotions or demotions,
+         * so the rank is read from the cached team instead of being cached itself.
+         */
+        TeamRank rankFor(UUID playerId) {
+            return team != null ? team.getRankForPlayer(playerId) : TeamRank.NONE;
+        }
+    }
+
+    static final Entry NONE = new Entry(null, null, null, BindingRestriction.MEMBER,
+            BindingPolicy.forRestriction(BindingRestriction.MEMBER), new BindingContext[0]);
+
+    private static final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped before every invalidation, so a lookup that raced one can tell its result may be stale
+    private static final AtomicLong generation = new AtomicLong();
+
+    private TeamResolutionCache() {
+    }
+
+    /**
+     * Gets the cached party team for a player, resolving it through the team manager on a miss.
+     */
+    static Entry get(UUID playerId) {
+        Entry entry = entries.get(playerId);
+        if (entry == null) {
+            TeamNetworkMetrics.recordCacheMiss();
+            long resolvedAt = generation.get();
+            entry = resolve(playerId);
+            entries.put(playerId, entry);
+            if (generation.get() != resolvedAt) {
+                // An invalidation ran while resolving and may have missed this entry; the result is
+                // still returned, but the next lookup resolves again
+                entries.remove(playerId, entry);
+            }
+        } else {
+            TeamNetworkMetrics.recordCacheHit();
+        }
+        return entry;
+    }
+
+    private static Entry resolve(UUID playerId) {
+        return FTBTeamsAPI.api().getManager()
+                .getTeamForPlayerID(playerId)
+                .filter(team -> !team.isPlayerTeam()) // Only party teams, not solo player teams
+                .map(team -> new Entry(team, team.getId(), team.getName().getString(),
+                        BMTeamsProperties.getBindingRestriction(team), BMTeamsProperties.getBindingPolicy(team),
+                        new BindingContext[RANK_COUNT]))
+                .orElse(NONE);
+    }
+
+    static void invalidatePlayer(UUID playerId) {
+        generation.incrementAndGet();
+        entries.remove(playerId);
+    }
+
+    static void invalidateTeam(UUID teamId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> teamId.equals(entry.teamId()));
+    }
+
+    static void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Hooks FTB Teams events that change membership or team properties.
+     */
+    static void register() {
+        TeamEvent.PLAYER_CHANGED.register(event -> invalidatePlayer(event.getPlayerId()));
+        TeamEvent.PROPERTIES_CHANGED.register(event -> invalidateTeam(event.getTeam().getId()));
+        TeamEvent.DELETED.register(event -> invalidateTeam(event.getTeam().getId()));
+        TeamEvent.OWNERSHIP_TRANSFERRED.register(event -> invalidateTeam(event.getTeam().getId()));
+        BloodMagicTeams.LOGGER.debug("Registered team resolution cache listeners");
+    }
+}
@@ -0,0 +1,57 @@
+package com.breakinblocks.bloodmagicteams.integration;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.network.TeamSyncBatcher;
+import com.breakinblocks.bloodmagicteams.network.TeamSyncPacket;
+import com.breakinblocks.bloodmagicteams.team.BMTeamsProperties;
+import dev.ftb.mods.ftbteams.api.FTBTeamsAPI;
+import dev.ftb.mods.ftbteams.api.Team;
+import dev.ftb.mods.ftbteams.api.event.TeamEvent;
+import dev.ftb.mods.ftbteams.api.property.TeamProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues team name/color/restriction changes for clients so their {@link com.breakinblocks.bloodmagicteams.data.ClientTeamRegistry}
+ * stays current. This class should ONLY be loaded when FTB Teams is present.
+ */
+final class TeamSyncListener {
+
+    private TeamSyncListener() {
+    }
+
+    static TeamSyncPacket.Entry toEntry(Team team) {
+        return new TeamSyncPacket.Entry(team.getId(), team.getName().getString(),
+                team.getProperties().get(TeamProperties.COLOR).rgb(),
+                BMTeamsProperties.getBindingRestriction(team));
+    }
+
+    /**
+     * Builds the full registry snapshot sent to a player at login.
+     */
+    static List<TeamSyncPacket.Entry> snapshot() {
+        List<TeamSyncPacket.Entry> entries = new ArrayList<>();
+        for (Team team : FTBTeamsAPI.api().getManager().getTeams()) {
+            if (!team.isPlayerTeam()) {
+                entries.add(toEntry(team));
+            }
+        }
+        return entries;
+    }
+
+    static void register() {
+        TeamEvent.CREATED.register(event -> {
+            if (!event.getTeam().isPlayerTeam()) {
+                TeamSyncBatcher.queueUpdate(toEntry(event.getTeam()));
+            }
+        });
+        TeamEvent.PROPERTIES_CHANGED.register(event -> {
+            if (!event.getTeam().isPlayerTeam()) {
+                TeamSyncBatcher.queueUpdate(toEntry(event.getTeam()));
+            }
+        });
+        TeamEvent.DELETED.register(event -> TeamSyncBatcher.queueRemove(event.getTeam().getId()));
+        BloodMagicTeams.LOGGER.debug("Registered client team sync listeners");
+    }
+}
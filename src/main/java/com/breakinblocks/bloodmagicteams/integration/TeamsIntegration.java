@@ -1,6 +1,7 @@
 package com.breakinblocks.bloodmagicteams.integration;
 
 import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.network.TeamSyncPacket;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraftforge.fml.ModList;
 
@@ -22,6 +23,16 @@ public class TeamsIntegration {
         return teamsLoaded;
     }
 
+    /**
+     * Checks if FTB Teams has loaded its teams for the running server, so a missing team is really gone.
+     */
+    public static boolean isTeamManagerLoaded() {
+        if (!isTeamsLoaded()) {
+            return false;
+        }
+        return TeamsIntegrationImpl.isTeamManagerLoaded();
+    }
+
     /**
      * Gets the team UUID for a player, if they are on a team.
      * @param player The player to check
@@ -84,6 +95,18 @@ public class TeamsIntegration {
         return TeamsIntegrationImpl.isTeamUuid(ownerUuid);
     }
 
+    /**
+     * Gets the per-member drain quota for a soul network owner.
+     * @param ownerUuid The network owner's UUID (team or player)
+     * @return The quota in LP per window, or 0 if there is none
+     */
+    public static int getMemberDrainQuota(UUID ownerUuid) {
+        if (!isTeamsLoaded()) {
+            return 0;
+        }
+        return TeamsIntegrationImpl.getMemberDrainQuota(ownerUuid);
+    }
+
     /**
      * Gets the display name for a team by its UUID.
      * @param teamUuid The team's UUID
@@ -110,6 +133,46 @@ public class TeamsIntegration {
         return TeamsIntegrationImpl.canBindToTeam(player);
     }
 
+    /**
+     * Resolves the player's team, rank and binding permission in a single lookup.
+     * Prefer this over chaining {@link #isOnTeam}, {@link #canBindToTeam} and {@link #getTeamName}.
+     * @param player The player to check
+     * @return The binding context, or {@link BindingContext#NONE} if the player is not on a team
+     */
+    public static BindingContext getBindingContext(ServerPlayer player) {
+        if (!isTeamsLoaded()) {
+            return BindingContext.NONE;
+        }
+        return TeamsIntegrationImpl.getBindingContext(player);
+    }
+
+    /**
+     * Gets the teams a player may bind items to: teams where their rank passes the team's binding restriction.
+     * FTB Teams only allows membership of one party team, so this holds at most that team.
+     * Built from the cached team resolution, so it is cheap to call per keystroke.
+     * @param player The player to check
+     * @return Immutable map of team UUID to display name
+     */
+    public static java.util.Map<UUID, String> getBindableTeams(ServerPlayer player) {
+        BindingContext context = getBindingContext(player);
+        if (!context.isOnTeam() || !context.canBind()) {
+            return java.util.Collections.emptyMap();
+        }
+        return java.util.Map.of(context.teamId(), context.teamName() != null ? context.teamName() : "");
+    }
+
+    /**
+     * Gets the members of a party/server team.
+     * @param teamUuid The team's UUID
+     * @return The member UUIDs, or an empty set if the team does not exist
+     */
+    public static java.util.Set<UUID> getTeamMembers(UUID teamUuid) {
+        if (!isTeamsLoaded()) {
+            return java.util.Collections.emptySet();
+        }
+        return TeamsIntegrationImpl.getTeamMembers(teamUuid);
+    }
+
     /**
      * Gets all non-player (party/server) teams as a map of UUID to team name.
      * @return Map of team UUID to display name, or empty map if FTB Teams is not loaded
@@ -121,6 +184,41 @@ public class TeamsIntegration {
         return TeamsIntegrationImpl.getAllTeams();
     }
 
+    /**
+     * Finds a party/server team by display name, ignoring case, using a maintained index.
+     * @param name The team name
+     * @return The team UUID, or null if no team has that name
+     */
+    @Nullable
+    public static UUID findTeamIdByName(String name) {
+        if (!isTeamsLoaded()) {
+            return null;
+        }
+        return TeamsIntegrationImpl.findTeamIdByName(name);
+    }
+
+    /**
+     * Feeds team names and UUIDs that start with a prefix (ignoring case) to a consumer, for command suggestions.
+     * @param prefix The text typed so far
+     * @param consumer Receives each matching suggestion in sorted order
+     */
+    public static void forEachTeamSuggestion(String prefix, java.util.function.Consumer<String> consumer) {
+        if (isTeamsLoaded()) {
+            TeamsIntegrationImpl.forEachTeamSuggestion(prefix, consumer);
+        }
+    }
+
+    /**
+     * Gets name and color data for all non-player teams, for syncing to clients.
+     * @return List of team entries, or empty list if FTB Teams is not loaded
+     */
+    public static java.util.List<TeamSyncPacket.Entry> getTeamSyncSnapshot() {
+        if (!isTeamsLoaded()) {
+            return java.util.Collections.emptyList();
+        }
+        return TeamsIntegrationImpl.getTeamSyncSnapshot();
+    }
+
     /**
      * Registers team properties. Call during mod setup when FTB Teams is loaded.
      */
@@ -129,4 +227,32 @@ public class TeamsIntegration {
             TeamsIntegrationImpl.registerProperties();
         }
     }
+
+    /**
+     * Registers FTB Teams event listeners. Call during mod setup when FTB Teams is loaded.
+     */
+    public static void registerEvents() {
+        if (isTeamsLoaded()) {
+            TeamsIntegrationImpl.registerEvents();
+        }
+    }
+
+    /**
+     * Drops any cached team state for a player (e.g., when they log out).
+     * @param playerId The player's UUID
+     */
+    public static void invalidatePlayer(UUID playerId) {
+        if (isTeamsLoaded()) {
+            TeamsIntegrationImpl.invalidatePlayer(playerId);
+        }
+    }
+
+    /**
+     * Drops all cached team state. Call when the server stops.
+     */
+    public static void clearCaches() {
+        if (isTeamsLoaded()) {
+            TeamsIntegrationImpl.clearCaches();
+        }
+    }
 }
@@ -1,10 +1,10 @@
 package com.breakinblocks.bloodmagicteams.integration;
 
+import com.breakinblocks.bloodmagicteams.network.TeamSyncPacket;
 import com.breakinblocks.bloodmagicteams.team.BMTeamsProperties;
 import dev.ftb.mods.ftbteams.api.FTBTeamsAPI;
 import dev.ftb.mods.ftbteams.api.Team;
 import dev.ftb.mods.ftbteams.api.TeamManager;
-import dev.ftb.mods.ftbteams.api.TeamRank;
 import net.minecraft.server.level.ServerPlayer;
 
 import javax.annotation.Nullable;
@@ -18,25 +18,20 @@ import java.util.UUID;
  */
 class TeamsIntegrationImpl {
 
+    static boolean isTeamManagerLoaded() {
+        return FTBTeamsAPI.api().isManagerLoaded();
+    }
+
     static Optional<UUID> getTeamId(ServerPlayer player) {
-        return FTBTeamsAPI.api().getManager()
-                .getTeamForPlayer(player)
-                .filter(team -> !team.isPlayerTeam()) // Only return party teams, not solo player teams
-                .map(Team::getId);
+        return Optional.ofNullable(TeamResolutionCache.get(player.getUUID()).teamId());
     }
 
     static Optional<String> getTeamName(ServerPlayer player) {
-        return FTBTeamsAPI.api().getManager()
-                .getTeamForPlayer(player)
-                .filter(team -> !team.isPlayerTeam())
-                .map(team -> team.getName().getString());
+        return Optional.ofNullable(TeamResolutionCache.get(player.getUUID()).teamName());
     }
 
     static boolean isOnTeam(ServerPlayer player) {
-        return FTBTeamsAPI.api().getManager()
-                .getTeamForPlayer(player)
-                .filter(team -> !team.isPlayerTeam())
-                .isPresent();
+        return TeamResolutionCache.get(player.getUUID()).isPresent();
     }
 
     static boolean areOnSameTeam(ServerPlayer player1, ServerPlayer player2) {
@@ -62,6 +57,10 @@ class TeamsIntegrationImpl {
         }
     }
 
+    static int getMemberDrainQuota(UUID ownerUuid) {
+        return BMTeamsProperties.getMemberDrainQuota(ownerUuid);
+    }
+
     @Nullable
     static String getTeamNameByUuid(UUID teamUuid) {
         try {
@@ -79,17 +78,12 @@ class TeamsIntegrationImpl {
      * Check if a player can bind to their team based on the team's restriction setting.
      */
     static boolean canBindToTeam(ServerPlayer player) {
-        TeamManager manager = FTBTeamsAPI.api().getManager();
-        Optional<Team> teamOpt = manager.getTeamForPlayer(player)
-                .filter(team -> !team.isPlayerTeam());
-
-        if (teamOpt.isEmpty()) {
-            return false; // Not on a team
-        }
+        // Not on a team resolves to BindingContext.NONE, which allows nothing
+        return getBindingContext(player).canBind();
+    }
 
-        Team team = teamOpt.get();
-        TeamRank playerRank = team.getRankForPlayer(player.getUUID());
-        return BMTeamsProperties.canPlayerBind(team, playerRank);
+    static BindingContext getBindingContext(ServerPlayer player) {
+        return TeamResolutionCache.get(player.getUUID()).contextFor(player.getUUID());
     }
 
     /**
@@ -105,10 +99,50 @@ class TeamsIntegrationImpl {
         return result;
     }
 
+    static java.util.Set<UUID> getTeamMembers(UUID teamUuid) {
+        return FTBTeamsAPI.api().getManager().getTeamByID(teamUuid)
+                .filter(team -> !team.isPlayerTeam())
+                .map(Team::getMembers)
+                .orElse(java.util.Collections.emptySet());
+    }
+
     /**
      * Register team properties.
      */
     static void registerProperties() {
         BMTeamsProperties.register();
     }
+
+    /**
+     * Register FTB Teams event listeners that keep cached team state fresh.
+     */
+    static void registerEvents() {
+        TeamResolutionCache.register();
+        TeamSyncListener.register();
+        TeamNameIndex.register();
+        TeamMembershipListener.register();
+    }
+
+    @Nullable
+    static UUID findTeamIdByName(String name) {
+        return TeamNameIndex.findByName(name);
+    }
+
+    static void forEachTeamSuggestion(String prefix, java.util.function.Consumer<String> consumer) {
+        TeamNameIndex.forEachWithPrefix(prefix, consumer);
+    }
+
+    static java.util.List<TeamSyncPacket.Entry> getTeamSyncSnapshot() {
+        return TeamSyncListener.snapshot();
+    }
+
+    static void invalidatePlayer(UUID playerId) {
+        TeamResolutionCache.invalidatePlayer(playerId);
+    }
+
+    static void clearCaches() {
+        TeamResolutionCache.clear();
+        TeamNameIndex.invalidate();
+        BMTeamsProperties.clearCache();
+    }
 }
@@ -10,6 +10,12 @@ import java.util.Optional;
 
 /**
  * Network handler for BloodMagic Teams packets.
+ * <p>
+ * The channel version stays at "1" so older clients and servers can still connect: their
+ * Forge handshake only accepts that exact version. Newer features (binding request IDs and
+ * {@link TeamSyncPacket}) are instead negotiated per connection with {@link CapabilitiesPacket}.
+ * Older builds drop messages with an index they do not know, so the handshake is safe to send to
+ * them, and they are never sent anything else they do not understand.
  */
 public class BMTeamsNetwork {
     private static final String PROTOCOL_VERSION = "1";
@@ -24,6 +30,8 @@ public class BMTeamsNetwork {
     private static int packetId = 0;
 
     public static void init() {
+        // Message IDs 0 and 1 are shared with older builds and must keep their order
+
         // Client -> Server: Player's binding mode selection
         CHANNEL.registerMessage(
                 packetId++,
@@ -44,6 +52,25 @@ public class BMTeamsNetwork {
                 Optional.of(NetworkDirection.PLAY_TO_CLIENT)
         );
 
+        // Server -> Client: Batched team registry sync, once TEAM_SYNC is negotiated
+        CHANNEL.registerMessage(
+                packetId++,
+                TeamSyncPacket.class,
+                TeamSyncPacket::encode,
+                TeamSyncPacket::decode,
+                TeamSyncPacket::handle,
+                Optional.of(NetworkDirection.PLAY_TO_CLIENT)
+        );
+
+        // Both directions: Capability handshake
+        CHANNEL.registerMessage(
+                packetId++,
+                CapabilitiesPacket.class,
+                CapabilitiesPacket::encode,
+                CapabilitiesPacket::decode,
+                CapabilitiesPacket::handle
+        );
+
         BloodMagicTeams.LOGGER.debug("Network packets registered");
     }
 }
@@ -1,20 +1,21 @@
 package com.breakinblocks.bloodmagicteams.network;
 
 import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.data.HandlerTimings;
+import com.breakinblocks.bloodmagicteams.data.PendingBindings;
 import com.breakinblocks.bloodmagicteams.data.PlayerBindingData;
 import com.breakinblocks.bloodmagicteams.data.PlayerBindingData.BindingMode;
-import com.breakinblocks.bloodmagicteams.events.TeamEventHandler;
+import com.breakinblocks.bloodmagicteams.data.TeamNetworkMetrics;
+import com.breakinblocks.bloodmagicteams.integration.BindingContext;
 import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
+import com.breakinblocks.bloodmagicteams.team.ItemCategory;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.InteractionHand;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.network.NetworkEvent;
-import wayoftime.bloodmagic.common.item.IBindable;
 import wayoftime.bloodmagic.core.data.Binding;
 import wayoftime.bloodmagic.util.helper.BindableHelper;
 
-import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Supplier;
 
@@ -24,79 +25,97 @@ import java.util.function.Supplier;
 public class BindingModePacket {
     private final BindingMode mode;
     private final boolean dontAskAgain;
+    private final int requestId;
 
-    public BindingModePacket(BindingMode mode, boolean dontAskAgain) {
+    public BindingModePacket(BindingMode mode, boolean dontAskAgain, int requestId) {
         this.mode = mode;
         this.dontAskAgain = dontAskAgain;
+        this.requestId = requestId;
     }
 
     public static void encode(BindingModePacket packet, FriendlyByteBuf buf) {
         buf.writeEnum(packet.mode);
         buf.writeBoolean(packet.dontAskAgain);
+        if (packet.requestId != PendingBindings.LEGACY_REQUEST_ID) {
+            buf.writeVarInt(packet.requestId);
+        }
     }
 
     public static BindingModePacket decode(FriendlyByteBuf buf) {
         return new BindingModePacket(
                 buf.readEnum(BindingMode.class),
-                buf.readBoolean()
+                buf.readBoolean(),
+                // Older clients send no request ID
+                buf.isReadable() ? buf.readVarInt() : PendingBindings.LEGACY_REQUEST_ID
         );
     }
 
     public static void handle(BindingModePacket packet, Supplier<NetworkEvent.Context> ctx) {
+        // Checked on the network thread so a flooding client never reaches the main thread
+        ServerPlayer sender = ctx.get().getSender();
+        if (sender == null || !PacketRateLimiter.tryAcquire(sender)) {
+            ctx.get().setPacketHandled(true);
+            return;
+        }
+
         ctx.get().enqueueWork(() -> {
             ServerPlayer player = ctx.get().getSender();
-            if (player == null) {
-                return;
-            }
-
-            // Store the player's binding mode preference
-            PlayerBindingData.setBindingMode(player, packet.mode, packet.dontAskAgain);
-            BloodMagicTeams.LOGGER.debug("Player {} set binding mode to {} (dontAsk: {})", 
-                    player.getName().getString(), packet.mode, packet.dontAskAgain);
-
-            // Check if player was waiting to bind an item
-            if (TeamEventHandler.isPending(player.getUUID())) {
-                TeamEventHandler.clearPending(player.getUUID());
-                
-                // Find the bindable item in player's hands
-                ItemStack mainHand = player.getItemInHand(InteractionHand.MAIN_HAND);
-                ItemStack offHand = player.getItemInHand(InteractionHand.OFF_HAND);
-                
-                ItemStack toBind = null;
-                if (mainHand.getItem() instanceof IBindable bindable && bindable.getBinding(mainHand) == null) {
-                    toBind = mainHand;
-                } else if (offHand.getItem() instanceof IBindable bindable && bindable.getBinding(offHand) == null) {
-                    toBind = offHand;
-                }
-
-                if (toBind != null) {
-                    applyBinding(player, toBind, packet.mode);
+            if (player != null) {
+                long start = HandlerTimings.start();
+                try {
+                    packet.apply(player);
+                } finally {
+                    HandlerTimings.record(HandlerTimings.Timer.BINDING_MODE_PACKET, start);
                 }
             }
         });
         ctx.get().setPacketHandled(true);
     }
 
+    /**
+     * Applies this answer for a player. Must be called on the server thread.
+     * Split out of {@link #handle} so answers can also be replayed without a connection.
+     * Public only for the GameTest load test in {@code src/gametest}; mod code goes through {@link #handle}.
+     */
+    public void apply(ServerPlayer player) {
+        // Drop answers to prompts that were replaced, expired or already answered. Answers without an
+        // ID only match prompts sent without one, even if the client has negotiated IDs since.
+        PendingBindings.Request request = PendingBindings.take(player, requestId);
+        if (request == null) {
+            BloodMagicTeams.LOGGER.debug("Ignoring stale binding answer {} from {}",
+                    requestId, player.getName().getString());
+            return;
+        }
+
+        // Store the player's binding mode preference
+        PlayerBindingData.setBindingMode(player, mode, dontAskAgain);
+        BloodMagicTeams.LOGGER.debug("Player {} set binding mode to {} (dontAsk: {})", 
+                player.getName().getString(), mode, dontAskAgain);
+
+        // Bind the stack in the slot the prompt was opened for
+        ItemStack toBind = request.resolveStack(player);
+        if (toBind != null) {
+            applyBinding(player, toBind, mode);
+        } else {
+            BloodMagicTeams.LOGGER.debug("Binding prompt for {} no longer matches slot {}",
+                    player.getName().getString(), request.slot());
+        }
+    }
+
     private static void applyBinding(ServerPlayer player, ItemStack stack, BindingMode mode) {
         UUID ownerId;
         String ownerName;
 
-        if (mode == BindingMode.TEAM) {
-            // Get team info
-            Optional<UUID> teamId = TeamsIntegration.getTeamId(player);
-            if (teamId.isEmpty()) {
-                // Player left team? Fall back to personal
-                ownerId = player.getUUID();
-                ownerName = player.getName().getString();
-            } else {
-                ownerId = teamId.get();
-                ownerName = TeamsIntegration.getTeamNameByUuid(teamId.get());
-                if (ownerName == null) {
-                    ownerName = "Team";
-                }
-            }
+        BindingContext context = mode == BindingMode.TEAM
+                ? TeamsIntegration.getBindingContext(player)
+                : BindingContext.NONE;
+
+        if (context.isOnTeam() && context.canBind(ItemCategory.of(stack))) {
+            ownerId = context.teamId();
+            ownerName = context.teamName() != null ? context.teamName() : "Team";
+            TeamNetworkMetrics.recordBindings(ownerId, 1);
         } else {
-            // Personal binding
+            // Personal binding, or player left the team / lost permission since the prompt
             ownerId = player.getUUID();
             ownerName = player.getName().getString();
         }
@@ -0,0 +1,68 @@
+package com.breakinblocks.bloodmagicteams.network;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.data.HandlerTimings;
+import com.breakinblocks.bloodmagicteams.integration.TeamsIntegration;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Capability handshake, sent in both directions.
+ * The server offers its capabilities when a player joins; the client answers with the subset
+ * it supports, which becomes the negotiated set for that connection. Older clients do not know
+ * this message, drop it and never answer, so they keep the original payloads.
+ */
+public class CapabilitiesPacket {
+    private final int capabilities;
+
+    public CapabilitiesPacket(int capabilities) {
+        this.capabilities = capabilities;
+    }
+
+    public static void encode(CapabilitiesPacket packet, FriendlyByteBuf buf) {
+        buf.writeVarInt(packet.capabilities);
+    }
+
+    public static CapabilitiesPacket decode(FriendlyByteBuf buf) {
+        return new CapabilitiesPacket(buf.readVarInt());
+    }
+
+    public static void handle(CapabilitiesPacket packet, Supplier<NetworkEvent.Context> ctx) {
+        if (ctx.get().getDirection().getReceptionSide().isClient()) {
+            // Answer with what both sides understand
+            BMTeamsNetwork.CHANNEL.reply(new CapabilitiesPacket(packet.capabilities & ConnectionCapabilities.SUPPORTED),
+                    ctx.get());
+            ctx.get().setPacketHandled(true);
+            return;
+        }
+
+        ServerPlayer sender = ctx.get().getSender();
+        if (sender == null || !PacketRateLimiter.tryAcquire(sender)) {
+            ctx.get().setPacketHandled(true);
+            return;
+        }
+
+        ctx.get().enqueueWork(() -> {
+            long start = HandlerTimings.start();
+            try {
+                if (sender.hasDisconnected()) {
+                    return;
+                }
+                ConnectionCapabilities.set(sender.getUUID(), packet.capabilities);
+                BloodMagicTeams.LOGGER.debug("Negotiated capabilities {} with {}",
+                        Integer.toBinaryString(packet.capabilities & ConnectionCapabilities.SUPPORTED),
+                        sender.getName().getString());
+
+                if (ConnectionCapabilities.has(sender, ConnectionCapabilities.TEAM_SYNC)) {
+                    TeamSyncBatcher.sendFullSync(sender, TeamsIntegration.getTeamSyncSnapshot());
+                }
+            } finally {
+                HandlerTimings.record(HandlerTimings.Timer.CAPABILITIES_PACKET, start);
+            }
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -0,0 +1,51 @@
+package com.breakinblocks.bloodmagicteams.network;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side record of the protocol features each connected client agreed to.
+ * Filled by {@link CapabilitiesPacket}; players that never answer (older client builds) have
+ * none and are sent only the original binding payloads.
+ */
+public final class ConnectionCapabilities {
+
+    /**
+     * Client keeps a {@link com.breakinblocks.bloodmagicteams.data.ClientTeamRegistry} fed by {@link TeamSyncPacket}.
+     */
+    public static final int TEAM_SYNC = 1;
+
+    /**
+     * Binding prompts and answers carry a request ID.
+     */
+    public static final int BINDING_REQUEST_IDS = 1 << 1;
+
+    /**
+     * Everything this build understands.
+     */
+    public static final int SUPPORTED = TEAM_SYNC | BINDING_REQUEST_IDS;
+
+    private static final Map<UUID, Integer> negotiated = new ConcurrentHashMap<>();
+
+    private ConnectionCapabilities() {
+    }
+
+    public static boolean has(ServerPlayer player, int capability) {
+        return (negotiated.getOrDefault(player.getUUID(), 0) & capability) == capability;
+    }
+
+    static void set(UUID playerId, int capabilities) {
+        negotiated.put(playerId, capabilities & SUPPORTED);
+    }
+
+    public static void remove(UUID playerId) {
+        negotiated.remove(playerId);
+    }
+
+    public static void clear() {
+        negotiated.clear();
+    }
+}
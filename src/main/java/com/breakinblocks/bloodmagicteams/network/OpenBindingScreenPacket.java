@@ -1,5 +1,7 @@
 package com.breakinblocks.bloodmagicteams.network;
 
+import com.breakinblocks.bloodmagicteams.data.HandlerTimings;
+import com.breakinblocks.bloodmagicteams.data.PendingBindings;
 import com.breakinblocks.bloodmagicteams.ui.BindingModeScreen;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.api.distmarker.Dist;
@@ -13,28 +15,41 @@ import java.util.function.Supplier;
  */
 public class OpenBindingScreenPacket {
     private final String teamName;
+    private final int requestId;
 
-    public OpenBindingScreenPacket(String teamName) {
+    public OpenBindingScreenPacket(String teamName, int requestId) {
         this.teamName = teamName;
+        this.requestId = requestId;
     }
 
     public static void encode(OpenBindingScreenPacket packet, FriendlyByteBuf buf) {
         buf.writeUtf(packet.teamName);
+        // Omitted for clients without request IDs, leaving the original payload
+        if (packet.requestId != PendingBindings.LEGACY_REQUEST_ID) {
+            buf.writeVarInt(packet.requestId);
+        }
     }
 
     public static OpenBindingScreenPacket decode(FriendlyByteBuf buf) {
-        return new OpenBindingScreenPacket(buf.readUtf());
+        String teamName = buf.readUtf();
+        int requestId = buf.isReadable() ? buf.readVarInt() : PendingBindings.LEGACY_REQUEST_ID;
+        return new OpenBindingScreenPacket(teamName, requestId);
     }
 
     public static void handle(OpenBindingScreenPacket packet, Supplier<NetworkEvent.Context> ctx) {
         ctx.get().enqueueWork(() -> {
-            handleClient(packet);
+            long start = HandlerTimings.start();
+            try {
+                handleClient(packet);
+            } finally {
+                HandlerTimings.record(HandlerTimings.Timer.OPEN_BINDING_SCREEN_PACKET, start);
+            }
         });
         ctx.get().setPacketHandled(true);
     }
 
     @OnlyIn(Dist.CLIENT)
     private static void handleClient(OpenBindingScreenPacket packet) {
-        new BindingModeScreen(packet.teamName).openGui();
+        new BindingModeScreen(packet.teamName, packet.requestId).openGui();
     }
 }
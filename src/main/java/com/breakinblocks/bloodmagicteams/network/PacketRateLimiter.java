@@ -0,0 +1,118 @@
+package com.breakinblocks.bloodmagicteams.network;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.breakinblocks.bloodmagicteams.config.BMTeamsConfig;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-player token bucket for client to server packets on the BMTeams channel.
+ * Checked on the network thread before any work is queued, so a flooding client
+ * costs no main-thread time. Dropped packets are counted for /bloodmagicteams packets.
+ */
+public final class PacketRateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final Map<UUID, Bucket> buckets = new ConcurrentHashMap<>();
+    private static final LongAdder accepted = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+
+    /**
+     * Packets dropped for one player since they connected (or since the counters were reset).
+     */
+    public record DropCount(String playerName, long dropped) {
+    }
+
+    private static final class Bucket {
+        private final String playerName;
+        private double tokens;
+        private long lastRefill;
+        private volatile long dropped;
+        private volatile boolean warned;
+
+        Bucket(String playerName, double tokens, long now) {
+            this.playerName = playerName;
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        synchronized boolean tryAcquire(long now, double perSecond, double burst) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) * perSecond / NANOS_PER_SECOND);
+            lastRefill = now;
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return true;
+            }
+            dropped++;
+            return false;
+        }
+    }
+
+    private PacketRateLimiter() {
+    }
+
+    /**
+     * Takes a token for a packet from this player.
+     * @return true if the packet should be handled, false if it should be dropped
+     */
+    public static boolean tryAcquire(ServerPlayer player) {
+        double perSecond = BMTeamsConfig.PACKET_RATE_LIMIT.get();
+        double burst = BMTeamsConfig.PACKET_BURST.get();
+        long now = System.nanoTime();
+
+        Bucket bucket = buckets.computeIfAbsent(player.getUUID(),
+                id -> new Bucket(player.getName().getString(), burst, now));
+        if (bucket.tryAcquire(now, perSecond, burst)) {
+            accepted.increment();
+            return true;
+        }
+
+        dropped.increment();
+        if (!bucket.warned) {
+            // Log once per connection rather than once per dropped packet
+            bucket.warned = true;
+            BloodMagicTeams.LOGGER.warn("Rate limiting BloodMagic Teams packets from {}", bucket.playerName);
+        }
+        return false;
+    }
+
+    public static long getAccepted() {
+        return accepted.sum();
+    }
+
+    public static long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Gets the players with the most dropped packets, highest first.
+     */
+    public static List<DropCount> getTopDropped(int limit) {
+        List<DropCount> counts = new ArrayList<>();
+        for (Bucket bucket : buckets.values()) {
+            if (bucket.dropped > 0) {
+                counts.add(new DropCount(bucket.playerName, bucket.dropped));
+            }
+        }
+        counts.sort(Comparator.comparingLong(DropCount::dropped).reversed());
+        return counts.size() > limit ? counts.subList(0, limit) : counts;
+    }
+
+    public static void remove(UUID playerId) {
+        buckets.remove(playerId);
+    }
+
+    public static void clear() {
+        buckets.clear();
+        accepted.reset();
+        dropped.reset();
+    }
+}
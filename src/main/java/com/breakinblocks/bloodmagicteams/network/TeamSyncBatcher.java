@@ -0,0 +1,140 @@
+package com.breakinblocks.bloodmagicteams.network;
+
+import com.breakinblocks.bloodmagicteams.team.BindingRestriction;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.PacketDistributor;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects team changes during a tick and sends them as one {@link TeamSyncPacket}.
+ * Also owns the server's team index table: each team is given a small index the first time
+ * it is sent, and later packets refer to it by that index. Indices are never reused.
+ * Only accessed from the server thread.
+ */
+public final class TeamSyncBatcher {
+
+    // Marks a queued removal in the pending map
+    private static final TeamSyncPacket.Entry REMOVED = new TeamSyncPacket.Entry(new UUID(0L, 0L), "", 0,
+            BindingRestriction.MEMBER);
+
+    private static final Map<UUID, Integer> indices = new HashMap<>();
+    private static final Map<UUID, TeamSyncPacket.Entry> lastSent = new HashMap<>();
+    private static final Map<UUID, TeamSyncPacket.Entry> pending = new LinkedHashMap<>();
+    private static int nextIndex = 0;
+
+    private TeamSyncBatcher() {
+    }
+
+    /**
+     * Queues a team's current data; only fields that differ from what clients have are sent.
+     */
+    public static void queueUpdate(TeamSyncPacket.Entry entry) {
+        pending.put(entry.teamId(), entry);
+    }
+
+    public static void queueRemove(UUID teamId) {
+        pending.put(teamId, REMOVED);
+    }
+
+    /**
+     * Sends queued changes to every client with {@link ConnectionCapabilities#TEAM_SYNC}. Called once per tick.
+     */
+    public static void flush(MinecraftServer server) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<TeamSyncPacket.Op> ops = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, TeamSyncPacket.Entry> change : pending.entrySet()) {
+            TeamSyncPacket.Op op = change.getValue() == REMOVED
+                    ? remove(change.getKey())
+                    : upsert(change.getValue());
+            if (op != null) {
+                ops.add(op);
+            }
+        }
+        pending.clear();
+
+        if (!ops.isEmpty()) {
+            TeamSyncPacket packet = new TeamSyncPacket(false, ops);
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                if (ConnectionCapabilities.has(player, ConnectionCapabilities.TEAM_SYNC)) {
+                    BMTeamsNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), packet);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the whole registry to one player.
+     * Teams that were never sent before (for example those loaded from disk) are first broadcast
+     * to everyone else, so all clients agree on the index table.
+     */
+    public static void sendFullSync(ServerPlayer player, List<TeamSyncPacket.Entry> snapshot) {
+        for (TeamSyncPacket.Entry entry : snapshot) {
+            if (!entry.equals(lastSent.get(entry.teamId()))) {
+                pending.put(entry.teamId(), entry);
+            }
+        }
+        flush(player.server);
+
+        List<TeamSyncPacket.Op> ops = new ArrayList<>(snapshot.size());
+        for (TeamSyncPacket.Entry entry : snapshot) {
+            ops.add(define(indices.get(entry.teamId()), entry));
+        }
+        BMTeamsNetwork.CHANNEL.send(PacketDistributor.PLAYER.with(() -> player), new TeamSyncPacket(true, ops));
+    }
+
+    public static void clear() {
+        indices.clear();
+        lastSent.clear();
+        pending.clear();
+        nextIndex = 0;
+    }
+
+    @Nullable
+    private static TeamSyncPacket.Op upsert(TeamSyncPacket.Entry entry) {
+        TeamSyncPacket.Entry previous = lastSent.put(entry.teamId(), entry);
+        Integer index = indices.get(entry.teamId());
+        if (index == null) {
+            index = nextIndex++;
+            indices.put(entry.teamId(), index);
+            return define(index, entry);
+        }
+        if (previous == null) {
+            return define(index, entry);
+        }
+
+        int fields = 0;
+        if (!previous.name().equals(entry.name())) {
+            fields |= TeamSyncPacket.FIELD_NAME;
+        }
+        if (previous.color() != entry.color()) {
+            fields |= TeamSyncPacket.FIELD_COLOR;
+        }
+        if (previous.restriction() != entry.restriction()) {
+            fields |= TeamSyncPacket.FIELD_RESTRICTION;
+        }
+        return fields == 0 ? null
+                : new TeamSyncPacket.Update(index, fields, entry.name(), entry.color(), entry.restriction());
+    }
+
+    @Nullable
+    private static TeamSyncPacket.Op remove(UUID teamId) {
+        lastSent.remove(teamId);
+        Integer index = indices.remove(teamId);
+        return index != null ? new TeamSyncPacket.Remove(index) : null;
+    }
+
+    private static TeamSyncPacket.Define define(int index, TeamSyncPacket.Entry entry) {
+        return new TeamSyncPacket.Define(index, entry.teamId(), entry.name(), entry.color(), entry.restriction());
+    }
+}
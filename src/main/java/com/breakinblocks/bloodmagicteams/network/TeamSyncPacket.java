@@ -0,0 +1,159 @@
+package com.breakinblocks.bloodmagicteams.network;
+
+import com.breakinblocks.bloodmagicteams.data.ClientTeamRegistry;
+import com.breakinblocks.bloodmagicteams.data.HandlerTimings;
+import com.breakinblocks.bloodmagicteams.events.TooltipEventHandler;
+import com.breakinblocks.bloodmagicteams.team.BindingRestriction;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraftforge.network.NetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Packet sent from server to client to sync team data into {@link ClientTeamRegistry}.
+ * Carries a batch of operations; teams are referenced by a short index interned by
+ * {@link TeamSyncBatcher}, so the UUID is only sent once when a team is first defined.
+ * Only sent to clients that negotiated {@link ConnectionCapabilities#TEAM_SYNC}.
+ */
+public class TeamSyncPacket {
+    private static final byte OP_DEFINE = 0;
+    private static final byte OP_UPDATE = 1;
+    private static final byte OP_REMOVE = 2;
+
+    public static final int FIELD_NAME = 1;
+    public static final int FIELD_COLOR = 1 << 1;
+    public static final int FIELD_RESTRICTION = 1 << 2;
+
+    private final boolean fullSync;
+    private final List<Op> ops;
+
+    /**
+     * A team's synced data, as read from FTB Teams on the server.
+     */
+    public record Entry(UUID teamId, String name, int color, BindingRestriction restriction) {
+    }
+
+    /**
+     * A single change carried by the packet.
+     */
+    public sealed interface Op permits Define, Update, Remove {
+        int index();
+    }
+
+    /**
+     * Assigns an index to a team and sends all of its data.
+     */
+    public record Define(int index, UUID teamId, String name, int color, BindingRestriction restriction) implements Op {
+    }
+
+    /**
+     * Changes some fields of an already defined team. Only fields set in {@code fields} are sent.
+     */
+    public record Update(int index, int fields, @Nullable String name, int color,
+                         @Nullable BindingRestriction restriction) implements Op {
+    }
+
+    /**
+     * Forgets a team and retires its index.
+     */
+    public record Remove(int index) implements Op {
+    }
+
+    public TeamSyncPacket(boolean fullSync, List<Op> ops) {
+        this.fullSync = fullSync;
+        this.ops = ops;
+    }
+
+    public static void encode(TeamSyncPacket packet, FriendlyByteBuf buf) {
+        buf.writeBoolean(packet.fullSync);
+        buf.writeVarInt(packet.ops.size());
+        for (Op op : packet.ops) {
+            if (op instanceof Define define) {
+                buf.writeByte(OP_DEFINE);
+                buf.writeVarInt(define.index());
+                buf.writeUUID(define.teamId());
+                buf.writeUtf(define.name());
+                buf.writeInt(define.color());
+                buf.writeByte(define.restriction().ordinal());
+            } else if (op instanceof Update update) {
+                buf.writeByte(OP_UPDATE);
+                buf.writeVarInt(update.index());
+                buf.writeByte(update.fields());
+                if ((update.fields() & FIELD_NAME) != 0) {
+                    buf.writeUtf(update.name());
+                }
+                if ((update.fields() & FIELD_COLOR) != 0) {
+                    buf.writeInt(update.color());
+                }
+                if ((update.fields() & FIELD_RESTRICTION) != 0) {
+                    buf.writeByte(update.restriction().ordinal());
+                }
+            } else {
+                buf.writeByte(OP_REMOVE);
+                buf.writeVarInt(op.index());
+            }
+        }
+    }
+
+    public static TeamSyncPacket decode(FriendlyByteBuf buf) {
+        boolean fullSync = buf.readBoolean();
+        int count = buf.readVarInt();
+        List<Op> ops = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            byte kind = buf.readByte();
+            int index = buf.readVarInt();
+            switch (kind) {
+                case OP_DEFINE -> ops.add(new Define(index, buf.readUUID(), buf.readUtf(), buf.readInt(),
+                        readRestriction(buf)));
+                case OP_UPDATE -> {
+                    int fields = buf.readByte();
+                    String name = (fields & FIELD_NAME) != 0 ? buf.readUtf() : null;
+                    int color = (fields & FIELD_COLOR) != 0 ? buf.readInt() : 0;
+                    BindingRestriction restriction = (fields & FIELD_RESTRICTION) != 0 ? readRestriction(buf) : null;
+                    ops.add(new Update(index, fields, name, color, restriction));
+                }
+                case OP_REMOVE -> ops.add(new Remove(index));
+                default -> throw new IllegalArgumentException("Unknown team sync operation " + kind);
+            }
+        }
+        return new TeamSyncPacket(fullSync, ops);
+    }
+
+    private static BindingRestriction readRestriction(FriendlyByteBuf buf) {
+        BindingRestriction[] values = BindingRestriction.values();
+        int ordinal = buf.readByte();
+        return ordinal >= 0 && ordinal < values.length ? values[ordinal] : BindingRestriction.MEMBER;
+    }
+
+    public static void handle(TeamSyncPacket packet, Supplier<NetworkEvent.Context> ctx) {
+        ctx.get().enqueueWork(() -> {
+            long start = HandlerTimings.start();
+            try {
+                if (packet.fullSync) {
+                    ClientTeamRegistry.clear();
+                }
+                for (Op op : packet.ops) {
+                    if (op instanceof Define define) {
+                        ClientTeamRegistry.define(define.index(), define.teamId(), new ClientTeamRegistry.TeamEntry(
+                                define.name(), define.color(), define.restriction()));
+                    } else if (op instanceof Update update) {
+                        ClientTeamRegistry.update(update.index(), entry -> new ClientTeamRegistry.TeamEntry(
+                                (update.fields() & FIELD_NAME) != 0 ? update.name() : entry.name(),
+                                (update.fields() & FIELD_COLOR) != 0 ? update.color() : entry.color(),
+                                (update.fields() & FIELD_RESTRICTION) != 0 ? update.restriction() : entry.restriction()));
+                    } else {
+                        ClientTeamRegistry.removeIndex(op.index());
+                    }
+                }
+                TooltipEventHandler.invalidate();
+            } finally {
+                HandlerTimings.record(HandlerTimings.Timer.TEAM_SYNC_PACKET, start);
+            }
+        });
+        ctx.get().setPacketHandled(true);
+    }
+}
@@ -1,16 +1,28 @@
 package com.breakinblocks.bloodmagicteams.team;
 
 import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import com.mojang.authlib.GameProfile;
+import dev.ftb.mods.ftbteams.api.FTBTeamsAPI;
 import dev.ftb.mods.ftbteams.api.Team;
 import dev.ftb.mods.ftbteams.api.TeamRank;
 import dev.ftb.mods.ftbteams.api.event.TeamEvent;
 import dev.ftb.mods.ftbteams.api.property.EnumProperty;
+import dev.ftb.mods.ftbteams.api.property.IntProperty;
+import dev.ftb.mods.ftbteams.api.property.StringListProperty;
 import dev.ftb.mods.ftbteams.api.property.TeamPropertyCollection;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.server.ServerLifecycleHooks;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Registers and manages FTB Teams properties for BloodMagic Teams.
@@ -36,13 +48,114 @@ public class BMTeamsProperties {
             )
     );
 
+    public static final ResourceLocation BINDING_RULES_ID =
+            new ResourceLocation(BloodMagicTeams.MOD_ID, "binding_rules");
+
+    // Per-category, per-rank and per-player rules, compiled into a BindingPolicy
+    public static final StringListProperty BINDING_RULES = new StringListProperty(BINDING_RULES_ID, List.of());
+
+    public static final ResourceLocation MEMBER_DRAIN_QUOTA_ID =
+            new ResourceLocation(BloodMagicTeams.MOD_ID, "member_drain_quota");
+
+    // LP each member may drain from the team network per quota window, 0 = unlimited
+    public static final IntProperty MEMBER_DRAIN_QUOTA = new IntProperty(MEMBER_DRAIN_QUOTA_ID, 0, 0, Integer.MAX_VALUE);
+
+    // Parsed restriction per team, dropped when FTB Teams reports a property change
+    private static final Map<UUID, BindingRestriction> restrictions = new ConcurrentHashMap<>();
+
+    // Compiled policy per team, dropped on property or membership changes
+    private static final Map<UUID, BindingPolicy> policies = new ConcurrentHashMap<>();
+
+    // Drain quota per soul network owner; personal networks are cached as 0 so they cost one lookup
+    private static final Map<UUID, Integer> quotas = new ConcurrentHashMap<>();
+
     /**
      * Get the binding restriction for a team.
      */
     public static BindingRestriction getBindingRestriction(Team team) {
-        TeamPropertyCollection properties = team.getProperties();
-        String value = properties.get(BINDING_RESTRICTION);
-        return BindingRestriction.fromString(value);
+        BindingRestriction restriction = restrictions.get(team.getId());
+        if (restriction == null) {
+            TeamPropertyCollection properties = team.getProperties();
+            restriction = BindingRestriction.fromString(properties.get(BINDING_RESTRICTION));
+            restrictions.put(team.getId(), restriction);
+        }
+        return restriction;
+    }
+
+    /**
+     * Get the compiled binding policy for a team.
+     */
+    public static BindingPolicy getBindingPolicy(Team team) {
+        BindingPolicy policy = policies.get(team.getId());
+        if (policy == null) {
+            List<String> rules = team.getProperties().get(BINDING_RULES);
+            policy = BindingPolicy.compile(getBindingRestriction(team), rules, memberResolver(team));
+            policies.put(team.getId(), policy);
+        }
+        return policy;
+    }
+
+    /**
+     * Resolves player names in rules against the team's members, so no profile lookup leaves the server.
+     */
+    private static Function<String, UUID> memberResolver(Team team) {
+        Map<String, UUID> byName = new HashMap<>();
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        for (UUID memberId : team.getMembers()) {
+            String name = null;
+            if (server != null) {
+                ServerPlayer online = server.getPlayerList().getPlayer(memberId);
+                if (online != null) {
+                    name = online.getGameProfile().getName();
+                } else if (server.getProfileCache() != null) {
+                    name = server.getProfileCache().get(memberId).map(GameProfile::getName).orElse(null);
+                }
+            }
+            if (name != null) {
+                byName.put(name.toLowerCase(Locale.ROOT), memberId);
+            }
+        }
+
+        return value -> {
+            UUID byMemberName = byName.get(value.toLowerCase(Locale.ROOT));
+            if (byMemberName != null) {
+                return byMemberName;
+            }
+            try {
+                return UUID.fromString(value);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Get the per-member drain quota for a soul network owner.
+     * @param ownerId A team or player UUID
+     * @return The quota in LP, or 0 if the owner is not a party team or has no quota
+     */
+    public static int getMemberDrainQuota(UUID ownerId) {
+        Integer quota = quotas.get(ownerId);
+        if (quota == null) {
+            if (!FTBTeamsAPI.api().isManagerLoaded()) {
+                return 0;
+            }
+            quota = FTBTeamsAPI.api().getManager().getTeamByID(ownerId)
+                    .filter(team -> !team.isPlayerTeam())
+                    .map(team -> team.getProperties().get(MEMBER_DRAIN_QUOTA))
+                    .orElse(0);
+            quotas.put(ownerId, quota);
+        }
+        return quota;
+    }
+
+    /**
+     * Drops all cached restrictions, policies and quotas, e.g. when the server stops.
+     */
+    public static void clearCache() {
+        restrictions.clear();
+        policies.clear();
+        quotas.clear();
     }
 
     /**
@@ -52,8 +165,16 @@ public class BMTeamsProperties {
      * @return true if the player can bind to this team
      */
     public static boolean canPlayerBind(Team team, TeamRank playerRank) {
-        BindingRestriction restriction = getBindingRestriction(team);
+        return canPlayerBind(getBindingRestriction(team), playerRank);
+    }
 
+    /**
+     * Check if a rank satisfies an already resolved binding restriction.
+     * @param restriction The team's binding restriction
+     * @param playerRank The player's rank in the team
+     * @return true if the player can bind to this team
+     */
+    public static boolean canPlayerBind(BindingRestriction restriction, TeamRank playerRank) {
         if (restriction == BindingRestriction.MEMBER) {
             // Any member can bind
             return true;
@@ -65,14 +186,30 @@ public class BMTeamsProperties {
         return true; // Default to allowing
     }
 
+    private static void invalidate(UUID teamId) {
+        restrictions.remove(teamId);
+        policies.remove(teamId);
+        quotas.remove(teamId);
+    }
+
     /**
      * Register the team property using Architectury event system.
+     * Also registers the restriction cache invalidation. This runs before the other team
+     * listeners are registered, so they never read a stale restriction from a change event.
      */
     public static void register() {
         TeamEvent.COLLECT_PROPERTIES.register(event -> {
             event.add(BINDING_RESTRICTION);
-            BloodMagicTeams.LOGGER.debug("Added team property: {}", BINDING_RESTRICTION_ID);
+            event.add(BINDING_RULES);
+            event.add(MEMBER_DRAIN_QUOTA);
+            BloodMagicTeams.LOGGER.debug("Added team properties: {}, {}, {}",
+                    BINDING_RESTRICTION_ID, BINDING_RULES_ID, MEMBER_DRAIN_QUOTA_ID);
         });
+        TeamEvent.PROPERTIES_CHANGED.register(event -> invalidate(event.getTeam().getId()));
+        TeamEvent.DELETED.register(event -> invalidate(event.getTeam().getId()));
+        TeamEvent.CREATED.register(event -> quotas.remove(event.getTeam().getId()));
+        // Rules may name players, which only resolve once they are members
+        TeamEvent.PLAYER_CHANGED.register(event -> policies.clear());
         BloodMagicTeams.LOGGER.debug("Registered team property listener for: {}", BINDING_RESTRICTION_ID);
     }
 }
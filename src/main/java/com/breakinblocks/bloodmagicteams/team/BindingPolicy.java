@@ -0,0 +1,181 @@
+package com.breakinblocks.bloodmagicteams.team;
+
+import com.breakinblocks.bloodmagicteams.BloodMagicTeams;
+import dev.ftb.mods.ftbteams.api.TeamRank;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A team's compiled binding rules.
+ * <p>
+ * Rules come from the team's binding rules property, one per line:
+ * <ul>
+ *     <li>{@code <category>:<rank>} - minimum rank for a category ({@code orb}, {@code sigil},
+ *     {@code living_armour}, {@code other} or {@code all}), e.g. {@code orb:officer}</li>
+ *     <li>{@code allow:<player>} / {@code deny:<player>} - always allow or deny a player,
+ *     optionally for one category, e.g. {@code deny:sigil:Steve}</li>
+ * </ul>
+ * Categories without a rule use the team's {@link BindingRestriction}. Deny wins over allow,
+ * and both win over rank rules.
+ * <p>
+ * Rules are compiled into a table of bindable categories per rank plus per-player category masks,
+ * so a decision is one array lookup and at most two map lookups regardless of how many rules a team has.
+ */
+public final class BindingPolicy {
+
+    private static final TeamRank[] RANKS = TeamRank.values();
+
+    private static final BindingPolicy MEMBER_DEFAULT = build(baseRankMasks(BindingRestriction.MEMBER), Map.of(), Map.of());
+    private static final BindingPolicy OFFICER_DEFAULT = build(baseRankMasks(BindingRestriction.OFFICER), Map.of(), Map.of());
+
+    // Category bitmask each rank (by ordinal) may bind
+    private final int[] categoriesByRank;
+    private final Map<UUID, Integer> allowed;
+    private final Map<UUID, Integer> denied;
+
+    private BindingPolicy(int[] categoriesByRank, Map<UUID, Integer> allowed, Map<UUID, Integer> denied) {
+        this.categoriesByRank = categoriesByRank;
+        this.allowed = allowed;
+        this.denied = denied;
+    }
+
+    /**
+     * Gets the policy for a team that has no rules beyond its restriction.
+     */
+    public static BindingPolicy forRestriction(BindingRestriction restriction) {
+        return restriction == BindingRestriction.OFFICER ? OFFICER_DEFAULT : MEMBER_DEFAULT;
+    }
+
+    /**
+     * Gets the categories a player may bind, as a bitmask of {@link ItemCategory#bit()}.
+     */
+    public int bindableCategories(UUID playerId, TeamRank rank) {
+        int mask = categoriesByRank[rank.ordinal()];
+        if (!allowed.isEmpty()) {
+            mask |= allowed.getOrDefault(playerId, 0);
+        }
+        if (!denied.isEmpty()) {
+            mask &= ~denied.getOrDefault(playerId, 0);
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if any rule allows or denies a specific player, in which case players
+     * of the same rank can differ in what they may bind.
+     */
+    public boolean hasPlayerRules() {
+        return !allowed.isEmpty() || !denied.isEmpty();
+    }
+
+    /**
+     * Compiles rule lines on top of a base restriction. Invalid lines are logged and skipped.
+     * @param base The team's binding restriction, used for categories without a rule
+     * @param rules The rule lines
+     * @param playerResolver Resolves a player name or UUID string to a UUID, or null if unknown
+     */
+    public static BindingPolicy compile(BindingRestriction base, List<String> rules,
+                                        Function<String, UUID> playerResolver) {
+        if (rules.isEmpty()) {
+            return forRestriction(base);
+        }
+
+        // Bit r of rankMasks[c] is set when rank ordinal r may bind category ordinal c
+        int[] rankMasks = baseRankMasks(base);
+        Map<UUID, Integer> allowed = new HashMap<>();
+        Map<UUID, Integer> denied = new HashMap<>();
+
+        for (String rule : rules) {
+            String[] parts = rule.trim().split(":");
+            String head = parts[0].toLowerCase(Locale.ROOT);
+
+            if ((head.equals("allow") || head.equals("deny")) && (parts.length == 2 || parts.length == 3)) {
+                int categories = ItemCategory.ALL;
+                if (parts.length == 3) {
+                    ItemCategory category = ItemCategory.fromName(parts[1]);
+                    if (category == null) {
+                        warnInvalid(rule);
+                        continue;
+                    }
+                    categories = category.bit();
+                }
+                UUID playerId = playerResolver.apply(parts[parts.length - 1]);
+                if (playerId == null) {
+                    warnInvalid(rule);
+                    continue;
+                }
+                (head.equals("allow") ? allowed : denied).merge(playerId, categories, (a, b) -> a | b);
+            } else if (parts.length == 2) {
+                TeamRank rank = parseRank(parts[1]);
+                if (rank == null) {
+                    warnInvalid(rule);
+                    continue;
+                }
+                if (head.equals("all")) {
+                    Arrays.fill(rankMasks, rankMask(rank));
+                } else {
+                    ItemCategory category = ItemCategory.fromName(head);
+                    if (category == null) {
+                        warnInvalid(rule);
+                        continue;
+                    }
+                    rankMasks[category.ordinal()] = rankMask(rank);
+                }
+            } else if (!rule.isBlank()) {
+                warnInvalid(rule);
+            }
+        }
+
+        return build(rankMasks, Map.copyOf(allowed), Map.copyOf(denied));
+    }
+
+    private static BindingPolicy build(int[] rankMasks, Map<UUID, Integer> allowed, Map<UUID, Integer> denied) {
+        // Transpose so evaluation indexes by rank
+        int[] categoriesByRank = new int[RANKS.length];
+        for (int category = 0; category < rankMasks.length; category++) {
+            for (int rank = 0; rank < RANKS.length; rank++) {
+                if ((rankMasks[category] & (1 << rank)) != 0) {
+                    categoriesByRank[rank] |= 1 << category;
+                }
+            }
+        }
+        return new BindingPolicy(categoriesByRank, allowed, denied);
+    }
+
+    private static int[] baseRankMasks(BindingRestriction restriction) {
+        int[] rankMasks = new int[ItemCategory.values().length];
+        Arrays.fill(rankMasks, rankMask(restriction == BindingRestriction.OFFICER ? TeamRank.OFFICER : TeamRank.MEMBER));
+        return rankMasks;
+    }
+
+    private static int rankMask(TeamRank minimum) {
+        int mask = 0;
+        for (TeamRank rank : RANKS) {
+            if (rank.isAtLeast(minimum)) {
+                mask |= 1 << rank.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    @Nullable
+    private static TeamRank parseRank(String name) {
+        for (TeamRank rank : RANKS) {
+            if (rank.name().equalsIgnoreCase(name)) {
+                return rank;
+            }
+        }
+        return null;
+    }
+
+    private static void warnInvalid(String rule) {
+        BloodMagicTeams.LOGGER.warn("Ignoring invalid team binding rule '{}'", rule);
+    }
+}
@@ -3,6 +3,9 @@ package com.breakinblocks.bloodmagicteams.team;
 import net.minecraft.network.chat.Component;
 import net.minecraft.util.StringRepresentable;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Defines who can bind items to a team's soul network.
  */
@@ -10,6 +13,15 @@ public enum BindingRestriction implements StringRepresentable {
     MEMBER("member"),   // Any team member can bind (default)
     OFFICER("officer"); // Only officers and above can bind
 
+    // HashMap rather than Map.of so a missing (null) property value falls back instead of throwing
+    private static final Map<String, BindingRestriction> BY_NAME = new HashMap<>();
+
+    static {
+        for (BindingRestriction restriction : values()) {
+            BY_NAME.put(restriction.name, restriction);
+        }
+    }
+
     private final String name;
 
     BindingRestriction(String name) {
@@ -26,11 +38,6 @@ public enum BindingRestriction implements StringRepresentable {
     }
 
     public static BindingRestriction fromString(String name) {
-        for (BindingRestriction restriction : values()) {
-            if (restriction.name.equals(name)) {
-                return restriction;
-            }
-        }
-        return MEMBER;
+        return BY_NAME.getOrDefault(name, MEMBER);
     }
 }
@@ -0,0 +1,67 @@
+package com.breakinblocks.bloodmagicteams.team;
+
+import net.minecraft.world.item.ItemStack;
+import wayoftime.bloodmagic.common.item.ItemBloodOrb;
+import wayoftime.bloodmagic.common.item.ItemLivingArmor;
+import wayoftime.bloodmagic.common.item.sigil.ISigil;
+
+import javax.annotation.Nullable;
+
+/**
+ * Groups of bindable items that team binding rules can target separately.
+ */
+public enum ItemCategory {
+    ORB("orb"),
+    SIGIL("sigil"),
+    LIVING_ARMOUR("living_armour"),
+    OTHER("other");
+
+    /**
+     * Bitmask with every category set.
+     */
+    public static final int ALL = (1 << values().length) - 1;
+
+    private static final ItemCategory[] VALUES = values();
+
+    private final String name;
+
+    ItemCategory(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Gets the category of a bindable item.
+     */
+    public static ItemCategory of(ItemStack stack) {
+        if (stack.getItem() instanceof ItemBloodOrb) {
+            return ORB;
+        } else if (stack.getItem() instanceof ISigil) {
+            return SIGIL;
+        } else if (stack.getItem() instanceof ItemLivingArmor) {
+            return LIVING_ARMOUR;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Parses a category name as used in binding rules.
+     * @return The category, or null if the name is unknown
+     */
+    @Nullable
+    public static ItemCategory fromName(String name) {
+        for (ItemCategory category : VALUES) {
+            if (category.name.equalsIgnoreCase(name)) {
+                return category;
+            }
+        }
+        return null;
+    }
+}
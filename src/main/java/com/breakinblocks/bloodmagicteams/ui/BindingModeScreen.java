@@ -20,10 +20,12 @@ import net.minecraft.network.chat.Component;
  */
 public class BindingModeScreen extends BaseScreen {
     private final String teamName;
+    private final int requestId;
     private boolean dontAskAgain = false;
 
-    public BindingModeScreen(String teamName) {
+    public BindingModeScreen(String teamName, int requestId) {
         this.teamName = teamName;
+        this.requestId = requestId;
     }
 
     @Override
@@ -110,7 +112,7 @@ public class BindingModeScreen extends BaseScreen {
         public void onClicked(MouseButton button) {
             if (button.isLeft()) {
                 playClickSound();
-                BMTeamsNetwork.CHANNEL.sendToServer(new BindingModePacket(mode, dontAskAgain));
+                BMTeamsNetwork.CHANNEL.sendToServer(new BindingModePacket(mode, dontAskAgain, requestId));
                 closeGui();
                 BloodMagicTeams.LOGGER.debug("Selected binding mode: {} (dontAsk: {})", mode, dontAskAgain);
             }